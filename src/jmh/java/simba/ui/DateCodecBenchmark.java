@@ -0,0 +1,53 @@
+package simba.ui;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link DateCodec} against the {@code java.time} formatters it stands in for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateCodecBenchmark {
+    private final LocalDateTime date = LocalDateTime.of(2025, 2, 7, 18, 0);
+    private final String display = "07 Feb 2025 18:00";
+    private final String input = "07-02-2025 1800";
+
+    @Benchmark
+    public String formatWithFormatter() {
+        return DateCodec.DISPLAY.format(this.date);
+    }
+
+    @Benchmark
+    public String formatWithCodec() {
+        return DateCodec.format(this.date);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDisplayWithFormatter() {
+        return LocalDateTime.parse(this.display, DateCodec.DISPLAY);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDisplayWithCodec() {
+        return DateCodec.parseDisplay(this.display);
+    }
+
+    @Benchmark
+    public LocalDateTime parseInputWithFormatter() {
+        return LocalDateTime.parse(this.input, DateCodec.INPUT);
+    }
+
+    @Benchmark
+    public LocalDateTime parseInputWithCodec() {
+        return DateCodec.parseInput(this.input);
+    }
+}
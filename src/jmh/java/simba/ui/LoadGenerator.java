@@ -0,0 +1,203 @@
+package simba.ui;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput and latency of a running {@code main.ui.Server}, from several connections at once.
+ *
+ * <p>Each connection keeps {@code depth} commands in flight, sending the next one as soon as a response comes back,
+ * for {@code seconds} seconds. Most commands list or find tasks, and {@code writePercent} percent of them
+ * add a task or delete one added earlier by the same connection, so the list keeps about the same size.
+ * The latency of a command is measured from when it is sent until its whole response is read,
+ * so with pipelining it includes the time spent queued behind the commands sent before it.</p>
+ *
+ * <pre>
+ *     java simba.ui.LoadGenerator [port|unix:path] [connections] [seconds] [depth] [writePercent]
+ * </pre>
+ */
+public class LoadGenerator {
+    private static final String[] READS = {"list 1 --limit 20", "find book", "find report", "list 5 --limit 20"};
+
+    private final SocketAddress address;
+    private final long durationNanos;
+    private final int depth;
+    private final int writePercent;
+
+    /**
+     * A connection sending commands and recording how long each took to be answered.
+     */
+    private class Client extends Thread {
+        private final int number;
+        private final Random random;
+        private final ArrayDeque<Long> sentAt = new ArrayDeque<>();
+        private final ArrayDeque<Boolean> isAdding = new ArrayDeque<>();
+        private final ArrayDeque<String> addedIds = new ArrayDeque<>();
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private int added;
+        private IOException failure;
+
+        private Client(int number) {
+            super("load-client-" + number);
+            this.number = number;
+            this.random = new Random(number);
+        }
+
+        @Override
+        public void run() {
+            try (SocketChannel channel = SocketChannel.open(LoadGenerator.this.address);
+                 BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+                 BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+                long end = System.nanoTime() + LoadGenerator.this.durationNanos;
+                for (int i = 0; i < LoadGenerator.this.depth; i++) {
+                    this.send(writer);
+                }
+                writer.flush();
+                while (!this.sentAt.isEmpty()) {
+                    this.receive(reader);
+                    if (System.nanoTime() - end < 0) {
+                        this.send(writer);
+                        writer.flush();
+                    }
+                }
+                writer.write("bye\n");
+            } catch (IOException e) {
+                this.failure = e;
+            }
+        }
+
+        private void send(BufferedWriter writer) throws IOException {
+            String command;
+            boolean isAdd = false;
+            if (this.random.nextInt(100) >= LoadGenerator.this.writePercent) {
+                command = READS[this.random.nextInt(READS.length)];
+            } else if (this.addedIds.isEmpty()) {
+                command = "todo load " + this.number + " " + this.added++;
+                isAdd = true;
+            } else {
+                command = "delete #" + this.addedIds.poll();
+            }
+            writer.write(command);
+            writer.write('\n');
+            this.isAdding.add(isAdd);
+            this.sentAt.add(System.nanoTime());
+        }
+
+        private void receive(BufferedReader reader) throws IOException {
+            String first = null;
+            for (String line = reader.readLine(); !".".equals(line); line = reader.readLine()) {
+                if (line == null) {
+                    throw new IOException("The server closed the connection");
+                }
+                first = first == null ? line : first;
+            }
+            long latency = System.nanoTime() - this.sentAt.poll();
+            if (this.isAdding.poll() && first != null && first.startsWith("Added task #")) {
+                this.addedIds.add(first.substring("Added task #".length(), first.length() - 1));
+            }
+            if (this.count == this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.count * 2);
+            }
+            this.latencies[this.count++] = latency;
+        }
+    }
+
+    /**
+     * Initializes a new LoadGenerator for the server at the specified address.
+     *
+     * @param address      The address of the server.
+     * @param seconds      How long to send commands for.
+     * @param depth        The number of commands each connection keeps in flight.
+     * @param writePercent The percentage of commands that change the list.
+     */
+    public LoadGenerator(SocketAddress address, int seconds, int depth, int writePercent) {
+        this.address = address;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(seconds);
+        this.depth = Math.max(1, depth);
+        this.writePercent = writePercent;
+    }
+
+    /**
+     * Runs the load from the specified number of connections and returns a report of the results.
+     *
+     * @param connections The number of connections to send commands from.
+     * @return The number of requests per second and the latency percentiles, one per line.
+     * @throws InterruptedException If interrupted while waiting for the connections to finish.
+     * @throws IOException          If any connection failed.
+     */
+    public String run(int connections) throws InterruptedException, IOException {
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            clients.add(new Client(i));
+        }
+        long start = System.nanoTime();
+        clients.forEach(Thread::start);
+        int total = 0;
+        for (Client client : clients) {
+            client.join();
+            if (client.failure != null) {
+                throw client.failure;
+            }
+            total += client.count;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long[] latencies = new long[total];
+        int at = 0;
+        for (Client client : clients) {
+            System.arraycopy(client.latencies, 0, latencies, at, client.count);
+            at += client.count;
+        }
+        Arrays.sort(latencies);
+        return String.format("%d request(s) from %d connection(s), %d in flight each, in %.1f s%n"
+                        + "Throughput: %.0f requests/s%n"
+                        + "Latency: p50 %s, p99 %s, p99.9 %s, max %s ms",
+                total, connections, this.depth, elapsed / 1e9, total / (elapsed / 1e9),
+                percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                percentile(latencies, 1));
+    }
+
+    private static String percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return "-";
+        }
+        int idx = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return String.format("%.3f", sorted[Math.max(0, idx)] / 1e6);
+    }
+
+    /**
+     * Runs the load against a server on this machine and prints the report.
+     *
+     * @param args The port or {@code unix:} and the path of the socket, the number of connections,
+     *             the number of seconds, the number of commands in flight per connection
+     *             and the percentage of commands that change the list.
+     * @throws Exception If the server cannot be reached.
+     */
+    public static void main(String[] args) throws Exception {
+        String target = args.length > 0 ? args[0] : "4242";
+        SocketAddress address = target.startsWith("unix:")
+                ? UnixDomainSocketAddress.of(Path.of(target.substring("unix:".length())))
+                : new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(target));
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        int writePercent = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        System.out.println(new LoadGenerator(address, seconds, depth, writePercent).run(connections));
+    }
+}
@@ -0,0 +1,57 @@
+package simba.ui;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures turning an add command of each task type into a task,
+ * finding its handler in a {@link CommandRegistry} and parsing it as {@link Ui} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    @Param({"todo", "deadline", "event"})
+    private String type;
+
+    private String command;
+    private final CommandRegistry commands = new CommandRegistry();
+    private Task parsed;
+
+    /**
+     * Generates the command to parse, and registers a handler for each task type that keeps the parsed task
+     * instead of adding it to a list.
+     */
+    @Setup
+    public void setUp() {
+        this.command = new TaskFileGenerator(42).command(this.type);
+        this.commands.register("todo", command -> this.keep(new Parser(command).parseToDo()));
+        this.commands.register("deadline", command -> this.keep(new Parser(command).parseDeadline()));
+        this.commands.register("event", command -> this.keep(new Parser(command).parseEvent()));
+    }
+
+    /**
+     * Keeps the parsed task to be returned by the benchmark.
+     */
+    private String keep(Task task) {
+        this.parsed = task;
+        return "";
+    }
+
+    /**
+     * Finds the handler of the command and runs it.
+     */
+    @Benchmark
+    public Task taskToAdd() throws Exception {
+        this.commands.find(this.command).execute(this.command);
+        return this.parsed;
+    }
+}
@@ -0,0 +1,78 @@
+package simba.ui;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures loading and saving a whole task list through {@link Storage},
+ * and parsing the same list from its text form with {@link TaskFileParser}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Path dir;
+    private Storage storage;
+    private TaskStore list;
+    private Path textFile;
+
+    /**
+     * Writes a snapshot and the text form of a generated task list to a temporary directory.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("simba-bench");
+        this.storage = new Storage(this.dir.resolve("simba.txt").toString());
+        this.list = TaskStore.of(new TaskFileGenerator(42).tasks(this.size));
+        this.storage.writeToFile(this.list);
+        this.textFile = this.dir.resolve("tasks.txt");
+        TaskFileGenerator.writeTextFile(this.list, this.textFile);
+    }
+
+    /**
+     * Deletes the temporary directory.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(this.dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.dir);
+    }
+
+    @Benchmark
+    public TaskStore readFile() throws IOException {
+        return this.storage.readFile();
+    }
+
+    @Benchmark
+    public void writeToFile() throws IOException {
+        this.storage.writeToFile(this.list);
+    }
+
+    /**
+     * Parses the text form of the task list in chunks in parallel.
+     */
+    @Benchmark
+    public TaskFileParser.Parsed parseTextFile() throws IOException {
+        return TaskFileParser.parseFile(this.textFile);
+    }
+}
@@ -0,0 +1,47 @@
+package simba.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures comparing pairs of generated tasks of mixed types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskComparatorBenchmark {
+    private static final int MASK = 1023;
+
+    private final TaskComparator comparator = new TaskComparator();
+    private Task[] tasks;
+    private int next;
+
+    /**
+     * Generates the tasks to compare, shuffled so that neighbours are usually of different types.
+     */
+    @Setup
+    public void setUp() {
+        ArrayList<Task> list = new TaskFileGenerator(42).tasks(MASK + 1);
+        Collections.shuffle(list, new Random(42));
+        this.tasks = list.toArray(new Task[0]);
+    }
+
+    /**
+     * Compares the next task with its neighbour.
+     */
+    @Benchmark
+    public int compare() {
+        int idx = this.next++ & MASK;
+        return this.comparator.compare(this.tasks[idx], this.tasks[(idx + 1) & MASK]);
+    }
+}
@@ -0,0 +1,146 @@
+package simba.ui;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates realistic synthetic task lists for the benchmarks.
+ * Task names are made of a verb and one or two objects from a small vocabulary with a numbered suffix,
+ * so word and trigram postings are shared across many tasks, as they are in a real list.
+ * Roughly half the tasks are ToDos and the rest are split between Deadlines and Events
+ * spread over two years, and a fifth of the tasks are done.
+ *
+ * <p>It can also be run on its own to write a {@code simba.txt} file:</p>
+ * <pre>
+ *     java simba.ui.TaskFileGenerator simba.txt 100000
+ * </pre>
+ */
+public class TaskFileGenerator {
+    private static final String[] VERBS = {"buy", "read", "return", "submit", "pay", "call", "clean", "book",
+        "review", "finish", "plan", "fix", "write", "email", "prepare", "collect"};
+    private static final String[] OBJECTS = {"groceries", "report", "book", "rent", "mum", "room", "tickets",
+        "slides", "assignment", "bike", "essay", "lecture notes", "parcel", "lab", "tutorial", "project",
+        "invoice", "car", "dentist", "quiz"};
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final Random random;
+
+    /**
+     * Constructs a generator that produces the same tasks for the same seed.
+     *
+     * @param seed The seed of the generator.
+     */
+    public TaskFileGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a list of distinct tasks, sorted the same way a {@link TaskList} keeps them.
+     *
+     * @param count The number of tasks to generate.
+     * @return The generated tasks.
+     */
+    public ArrayList<Task> tasks(int count) {
+        HashSet<Task> seen = new HashSet<>();
+        ArrayList<Task> list = new ArrayList<>(count);
+        for (int i = 0; list.size() < count; i++) {
+            Task task = this.task(i);
+            if (seen.add(task)) {
+                list.add(task);
+            }
+        }
+        list.sort(new TaskComparator());
+        return list;
+    }
+
+    /**
+     * Generates a single task.
+     * Tasks generated with different numbers always have different names.
+     *
+     * @param number The number used to make the name of the task unique.
+     * @return The generated task.
+     */
+    public Task task(int number) {
+        String name = this.name() + " " + number;
+        int kind = this.random.nextInt(4);
+        Task task;
+        if (kind < 2) {
+            task = new ToDo(name);
+        } else if (kind == 2) {
+            task = new Deadline(name, this.date());
+        } else {
+            LocalDateTime start = this.date();
+            task = new Event(name, start, start.plusMinutes(30 + 30 * this.random.nextInt(16)));
+        }
+        if (this.random.nextInt(5) == 0) {
+            task.makeDone();
+        }
+        return task;
+    }
+
+    /**
+     * Generates a command that adds a task of the specified type, as the user would type it.
+     *
+     * @param type The type of task, one of "todo", "deadline" or "event".
+     * @return The generated command.
+     */
+    public String command(String type) {
+        String start = DateCodec.INPUT.format(this.date());
+        switch (type) {
+        case "todo":
+            return "todo " + this.name();
+        case "deadline":
+            return "deadline " + this.name() + " /by " + start;
+        default:
+            return "event " + this.name() + " /from " + start + " /to " + start.substring(0, 11) + "2359";
+        }
+    }
+
+    /**
+     * Writes a task list in the text form of {@code simba.txt}, one numbered task per line.
+     *
+     * @param list The tasks to write.
+     * @param target The path of the text file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeTextFile(List<Task> list, Path target) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < list.size(); i++) {
+                writer.write((i + 1) + ". " + list.get(i) + "\n");
+            }
+        }
+    }
+
+    private String name() {
+        String name = VERBS[this.random.nextInt(VERBS.length)] + " " + OBJECTS[this.random.nextInt(OBJECTS.length)];
+        if (this.random.nextInt(3) == 0) {
+            name += " and " + OBJECTS[this.random.nextInt(OBJECTS.length)];
+        }
+        return name;
+    }
+
+    private LocalDateTime date() {
+        return EPOCH.plusMinutes(15L * this.random.nextInt(2 * 365 * 24 * 4));
+    }
+
+    /**
+     * Writes a synthetic {@code simba.txt} file.
+     *
+     * @param args The path of the file, and optionally the number of tasks (1000 by default)
+     *             and the seed (42 by default).
+     * @throws IOException If the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        writeTextFile(new TaskFileGenerator(seed).tasks(count), Path.of(args[0]));
+    }
+}
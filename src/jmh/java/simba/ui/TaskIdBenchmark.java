@@ -0,0 +1,61 @@
+package simba.ui;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures finding tasks by their ids in a {@link TaskStore}, on its own and with a task added in between,
+ * as a script alternating "todo" with "mark #id" does.
+ * The added task is removed again afterwards, so the store keeps its size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskIdBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    private TaskStore store;
+    private TaskFileGenerator generator;
+    private Random random;
+    private int added;
+
+    /**
+     * Generates the tasks and builds the table from their ids to their positions.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.generator = new TaskFileGenerator(42);
+        this.store = TaskStore.of(this.generator.tasks(this.size));
+        this.random = new Random(7);
+        this.added = this.size;
+        this.store.positionOf(1);
+    }
+
+    @Benchmark
+    public int positionOf() {
+        return this.store.positionOf(1 + this.random.nextInt(this.store.nextId() - 1));
+    }
+
+    /**
+     * Adds a task at a random position, finds a random task by its id, and removes the added task.
+     */
+    @Benchmark
+    public int addThenPositionOf() {
+        int idx = this.random.nextInt(this.store.size() + 1);
+        this.store.add(idx, this.generator.task(this.added++));
+        int position = this.store.positionOf(1 + this.random.nextInt(this.store.nextId() - 1));
+        this.store.remove(idx);
+        return position;
+    }
+}
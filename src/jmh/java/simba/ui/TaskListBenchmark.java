@@ -0,0 +1,75 @@
+package simba.ui;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import exception.ui.DuplicateTaskException;
+
+/**
+ * Measures adding and finding tasks in a {@link TaskList} loaded from a generated task list.
+ * Every added task is new, so the list grows by one task per invocation of {@link #addTaskAsString()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+    @Param({"1000", "100000"})
+    private int size;
+
+    @Param({"re", "rent", "lecture notes"})
+    private String word;
+
+    private Path dir;
+    private TaskList tasks;
+    private TaskFileGenerator generator;
+    private int added;
+
+    /**
+     * Loads a task list from a snapshot of a generated task list in a temporary directory.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.dir = Files.createTempDirectory("simba-bench");
+        Storage storage = new Storage(this.dir.resolve("simba.txt").toString());
+        this.generator = new TaskFileGenerator(42);
+        storage.writeToFile(TaskStore.of(this.generator.tasks(this.size)));
+        this.tasks = new TaskList(storage);
+        this.added = this.size;
+    }
+
+    /**
+     * Deletes the temporary directory.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(this.dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.dir);
+    }
+
+    @Benchmark
+    public String addTaskAsString() throws DuplicateTaskException, IOException {
+        return this.tasks.addTaskAsString(this.generator.task(this.added++));
+    }
+
+    @Benchmark
+    public String findTaskAsString() {
+        return this.tasks.findTaskAsString(this.word);
+    }
+}
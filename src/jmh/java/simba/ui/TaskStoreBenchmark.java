@@ -0,0 +1,103 @@
+package simba.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares a {@link TaskStore} with the {@code ArrayList} of tasks it replaced in {@link TaskList}.
+ * The benchmarks measure building and rendering each, and are best run with {@code -prof gc}
+ * to also compare how much each allocates.
+ *
+ * <p>It can also be run on its own to print the heap retained by each for the same generated tasks:</p>
+ * <pre>
+ *     java simba.ui.TaskStoreBenchmark 1000000
+ * </pre>
+ * Names are interned unless it is run with {@code -Dsimba.intern=false}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskStoreBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private ArrayList<Task> list;
+    private TaskStore store;
+
+    /**
+     * Generates the tasks, and holds them both in a list and in a store.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.list = new TaskFileGenerator(42).tasks(this.size);
+        this.store = TaskStore.of(this.list);
+    }
+
+    @Benchmark
+    public ArrayList<Task> buildArrayList() {
+        return new ArrayList<>(this.list);
+    }
+
+    @Benchmark
+    public TaskStore buildTaskStore() {
+        return TaskStore.of(this.list);
+    }
+
+    @Benchmark
+    public int renderArrayList() {
+        return render(this.list);
+    }
+
+    @Benchmark
+    public int renderTaskStore() {
+        return render(this.store);
+    }
+
+    private static int render(List<Task> tasks) {
+        int length = 0;
+        for (Task task : tasks) {
+            length += task.toString().length();
+        }
+        return length;
+    }
+
+    /**
+     * Prints the heap retained by a list and by a store of the same generated tasks.
+     *
+     * @param args The number of tasks, 1000000 by default.
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long before = usedHeap();
+        ArrayList<Task> list = new TaskFileGenerator(42).tasks(count);
+        long listBytes = usedHeap() - before;
+
+        before = usedHeap();
+        TaskStore store = TaskStore.of(list);
+        list = null;
+        long storeBytes = usedHeap() - before + listBytes;
+
+        System.out.printf("%d tasks: ArrayList<Task> %.1f MiB, TaskStore %.1f MiB%n%s%n", count,
+                listBytes / 1048576.0, storeBytes / 1048576.0, store.namesStatsAsString());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
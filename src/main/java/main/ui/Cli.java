@@ -0,0 +1,43 @@
+package main.ui;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import simba.ui.Simba;
+
+/**
+ * A command line entry point for Simba that does not start the GUI.
+ *
+ * <p>Given the paths of one or more scripts, it runs each of them as a batch with the "run" command
+ * and prints a summary of each. Otherwise it reads commands from standard input, one per line,
+ * and prints the response to each until it reads "bye".</p>
+ */
+public class Cli {
+    /**
+     * Runs the scripts given as arguments, or the commands read from standard input if there are none.
+     *
+     * @param args The paths of the scripts to run.
+     * @throws IOException If standard input cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        Simba simba = new Simba();
+        if (args.length > 0) {
+            for (String script : args) {
+                System.out.println(simba.getResponse("run " + script));
+            }
+            simba.shutdown();
+            return;
+        }
+
+        System.out.println(simba.greet());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null && !line.equals("bye"); line = reader.readLine()) {
+            if (!line.isBlank()) {
+                System.out.println(simba.getResponse(line));
+            }
+        }
+        simba.shutdown();
+    }
+}
@@ -13,12 +13,19 @@ import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 
+/**
+ * A single message in the transcript, showing its text next to the profile picture of whoever sent it.
+ * The transcript reuses the same few dialog boxes for whichever messages are on screen,
+ * so a dialog box can be switched to show another message with {@link #show(Message, Image)}.
+ */
 public class DialogBox extends HBox {
     @FXML
     private Label dialog;
     @FXML
     private ImageView displayPicture;
 
+    private boolean isFlipped;
+
     /**
      * Constructs a DialogBox with the specified text and image.
      *
@@ -40,14 +47,38 @@ public class DialogBox extends HBox {
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Flips the dialog box such that the ImageView is on the left and text on the right,
+     * or back again if it was already flipped.
      */
     private void flip() {
-        this.setAlignment(Pos.CENTER_LEFT);
+        this.isFlipped = !this.isFlipped;
+        this.setAlignment(this.isFlipped ? Pos.CENTER_LEFT : Pos.CENTER_RIGHT);
         ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
         FXCollections.reverse(tmp);
         this.getChildren().setAll(tmp);
-        dialog.getStyleClass().add("reply-label");
+        if (this.isFlipped) {
+            dialog.getStyleClass().add("reply-label");
+        } else {
+            dialog.getStyleClass().remove("reply-label");
+        }
+    }
+
+    /**
+     * Shows a message in the dialog box, flipping it if the message is on the other side from the last one shown.
+     *
+     * @param message The message to show.
+     * @param img     The profile picture of whoever sent the message.
+     */
+    void show(Message message, Image img) {
+        this.dialog.setText(message.getText());
+        this.displayPicture.setImage(img);
+        if (message.isReply() != this.isFlipped) {
+            this.flip();
+        }
+        this.dialog.getStyleClass().remove("pending-label");
+        if (message.isPending()) {
+            this.dialog.getStyleClass().add("pending-label");
+        }
     }
 
     /**
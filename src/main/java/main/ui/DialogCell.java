@@ -0,0 +1,47 @@
+package main.ui;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * A cell of the transcript that shows one {@link Message} in a {@link DialogBox}.
+ * The list view only creates as many cells as fit on screen and reuses them as the transcript scrolls,
+ * so each cell loads its dialog box once and switches it between messages.
+ */
+class DialogCell extends ListCell<Message> {
+    private final Image userImage;
+    private final Image simbaImage;
+    private DialogBox box;
+
+    /**
+     * Constructs a cell for the specified transcript.
+     *
+     * @param transcript The list view the cell belongs to.
+     * @param userImage  The user's profile image.
+     * @param simbaImage Simba's profile image.
+     */
+    DialogCell(ListView<Message> transcript, Image userImage, Image simbaImage) {
+        this.userImage = userImage;
+        this.simbaImage = simbaImage;
+        this.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        this.prefWidthProperty().bind(transcript.widthProperty().subtract(20));
+        this.setMaxWidth(USE_PREF_SIZE);
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            this.setGraphic(null);
+            return;
+        }
+        if (this.box == null) {
+            this.box = new DialogBox("", this.userImage);
+            this.box.prefWidthProperty().bind(this.widthProperty());
+        }
+        this.box.show(message, message.isReply() ? this.simbaImage : this.userImage);
+        this.setGraphic(this.box);
+    }
+}
@@ -7,6 +7,7 @@ import javafx.application.Application;
  */
 public class Launcher {
     public static void main(String[] args) {
+        StartupTimer.mark("main");
         Application.launch(Main.class, args);
     }
 }
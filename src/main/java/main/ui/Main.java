@@ -18,11 +18,13 @@ public class Main extends Application {
 
     /**
      * Starts the JavaFX application and sets up the main window.
+     * The window is shown straight away, and the tasks are loaded in the background once it is.
      *
      * @param stage The primary stage for this application.
      */
     @Override
     public void start(Stage stage) {
+        StartupTimer.mark("JavaFX started");
         try {
             stage.setMinHeight(220);
             stage.setMinWidth(417);
@@ -32,7 +34,9 @@ public class Main extends Application {
             Scene scene = new Scene(ap);
             stage.setScene(scene);
             fxmlLoader.<MainWindow>getController().setSimba(simba);
+            StartupTimer.mark("window loaded");
             stage.show();
+            StartupTimer.mark("window shown");
             fxmlLoader.<MainWindow>getController().initialGreeting();
         } catch (IOException e) {
             e.printStackTrace();
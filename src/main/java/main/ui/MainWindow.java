@@ -1,22 +1,38 @@
 package main.ui;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import simba.ui.Simba;
 
 /**
  * Controller for the main GUI, handling user interactions and chatbot responses.
+ *
+ * <p>Commands are run one at a time, in the order they were entered, on a single background thread,
+ * so reading and writing the task file never blocks the JavaFX application thread.
+ * Each command shows a pending reply straight away, which is filled in once its response is ready.</p>
+ *
+ * <p>The window is shown before the tasks are loaded. Loading them is the first job of the background thread,
+ * so commands entered in the meantime simply wait behind it, and its pending reply is filled in once it is done.
+ * The profile pictures are decoded in the background too, and appear once they are ready.</p>
+ *
+ * <p>The transcript is a {@link ListView} of {@link Message}s, which only creates cells for the messages on
+ * screen. It keeps the latest {@link #HISTORY_LIMIT} messages, which can be changed through the
+ * {@code simba.history} system property, and drops the oldest ones beyond that.</p>
  */
 public class MainWindow extends AnchorPane {
+    private static final int HISTORY_LIMIT = Math.max(2, Integer.getInteger("simba.history", 500));
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<Message> transcript;
     @FXML
     private TextField userInput;
     @FXML
@@ -24,16 +40,21 @@ public class MainWindow extends AnchorPane {
 
     private Simba simba;
 
-    private final Image simbaImage = new Image(this.getClass().getResourceAsStream("/images/simba.png"));
-    private final Image userImage = new Image(this.getClass().getResourceAsStream("/images/user.png"));
+    private final ExecutorService commands = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "simba-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Image simbaImage = new Image(this.getClass().getResource("/images/simba.png").toExternalForm(), true);
+    private final Image userImage = new Image(this.getClass().getResource("/images/user.png").toExternalForm(), true);
 
     /**
-     * Initializes the MainWindow. Binds the ScrollPane's vertical value to the height of the dialog container,
-     * ensuring automatic scrolling to the latest message.
+     * Initializes the MainWindow. Sets up the transcript to show each message in a reusable {@link DialogCell}.
      */
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        transcript.setCellFactory(view -> new DialogCell(view, userImage, simbaImage));
     }
 
     /**
@@ -46,37 +67,103 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Displays Simba's initial greeting in the dialog container.
+     * Displays Simba's initial greeting in the transcript, and starts loading the tasks in the background
+     * with a pending reply that shows how many were loaded once they are, or what went wrong.
      */
     void initialGreeting() {
-        dialogContainer.getChildren().addAll(
-                DialogBox.getSimbaDialog(simba.greet(), simbaImage)
-        );
+        Message loading = Message.pendingReply();
+        this.append(Message.reply(simba.greet()), loading);
         userInput.clear();
+
+        commands.execute(() -> {
+            String response;
+            try {
+                response = simba.load();
+            } catch (RuntimeException e) {
+                response = "Something went wrong: " + e.getMessage();
+            }
+            Message loaded = Message.reply(response);
+            Platform.runLater(() -> {
+                this.replace(loading, loaded);
+                StartupTimer.finish("tasks loaded");
+            });
+        });
     }
 
     /**
-     * Handles user input by displaying the user's message and Simba's response in the dialog container.
-     * If the user enters "bye", the application exits.
+     * Handles user input by displaying the user's message and a pending reply in the transcript,
+     * then running the command in the background and showing Simba's response in the reply.
+     * If the user enters "bye", the application saves any deferred changes and exits
+     * once every command entered before it has run.
      * If the input is blank, no action is taken.
-     * After processing, the user input field is cleared.
+     * The user input field is cleared straight away, so the next command can be typed in the meantime.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
 
         if (input.equals("bye")) {
-            System.exit(0);
+            commands.execute(() -> {
+                try {
+                    simba.shutdown();
+                } finally {
+                    System.exit(0);
+                }
+            });
+            return;
         }
         if (input.isBlank()) {
             return;
         }
 
-        String response = simba.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getSimbaDialog(response, simbaImage)
-        );
+        Message reply = Message.pendingReply();
+        this.append(Message.fromUser(input), reply);
         userInput.clear();
+
+        commands.execute(() -> {
+            String response;
+            try {
+                response = simba.getResponse(input);
+            } catch (RuntimeException e) {
+                response = "Something went wrong: " + e.getMessage();
+            }
+            Message answer = Message.reply(response);
+            Platform.runLater(() -> this.replace(reply, answer));
+        });
+    }
+
+    /**
+     * Adds messages to the end of the transcript and scrolls to them,
+     * dropping the oldest messages once there are more than {@link #HISTORY_LIMIT}.
+     *
+     * @param messages The messages to add.
+     */
+    private void append(Message... messages) {
+        ObservableList<Message> items = transcript.getItems();
+        items.addAll(messages);
+        if (items.size() > HISTORY_LIMIT) {
+            items.remove(0, items.size() - HISTORY_LIMIT);
+        }
+        transcript.scrollTo(items.size() - 1);
+    }
+
+    /**
+     * Replaces a pending reply with its response, unless it has already been dropped from the transcript.
+     * Pending replies are near the end of the transcript, so it is searched from the end.
+     *
+     * @param pending The pending reply.
+     * @param answer  The reply holding the response.
+     */
+    private void replace(Message pending, Message answer) {
+        ObservableList<Message> items = transcript.getItems();
+        for (int i = items.size() - 1; i >= 0; i--) {
+            if (items.get(i) == pending) {
+                items.set(i, answer);
+                if (i == items.size() - 1) {
+                    transcript.scrollTo(i);
+                }
+                return;
+            }
+        }
     }
 }
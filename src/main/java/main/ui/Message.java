@@ -0,0 +1,73 @@
+package main.ui;
+
+/**
+ * One message in the transcript, either typed by the user or replied by Simba.
+ * A reply is pending until its response is ready, and is then replaced by a reply holding the response.
+ */
+final class Message {
+    private final String text;
+    private final boolean isReply;
+    private final boolean isPending;
+
+    private Message(String text, boolean isReply, boolean isPending) {
+        this.text = text;
+        this.isReply = isReply;
+        this.isPending = isPending;
+    }
+
+    /**
+     * Creates a message typed by the user.
+     *
+     * @param text The text of the message.
+     * @return The message.
+     */
+    static Message fromUser(String text) {
+        return new Message(text, false, false);
+    }
+
+    /**
+     * Creates a reply from Simba.
+     *
+     * @param text The text of the reply.
+     * @return The reply.
+     */
+    static Message reply(String text) {
+        return new Message(text, true, false);
+    }
+
+    /**
+     * Creates a reply from Simba that is still waiting for its response.
+     *
+     * @return The pending reply.
+     */
+    static Message pendingReply() {
+        return new Message("...", true, true);
+    }
+
+    /**
+     * Returns the text of the message.
+     *
+     * @return The text of the message.
+     */
+    String getText() {
+        return this.text;
+    }
+
+    /**
+     * Returns whether the message is a reply from Simba.
+     *
+     * @return {@code true} if the message is from Simba, {@code false} if it was typed by the user.
+     */
+    boolean isReply() {
+        return this.isReply;
+    }
+
+    /**
+     * Returns whether the message is a reply still waiting for its response.
+     *
+     * @return {@code true} if the reply is pending, {@code false} otherwise.
+     */
+    boolean isPending() {
+        return this.isPending;
+    }
+}
@@ -0,0 +1,216 @@
+package main.ui;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import simba.ui.Simba;
+
+/**
+ * A headless entry point for Simba that serves commands to clients on the same machine,
+ * over a TCP port bound to the loopback address or over a Unix domain socket.
+ *
+ * <p>The protocol is line based. A client sends one command per line, as it would type it in the GUI,
+ * and gets back the lines of the response followed by a line holding a single {@code "."}.
+ * A response line that starts with {@code "."} has another one added in front of it, as in SMTP,
+ * so it cannot be taken for the end of the response. Sending "bye" closes the connection.</p>
+ *
+ * <p>Clients may pipeline their commands, sending many without waiting for the responses, which come back
+ * in the same order. The responses are only flushed once every command received so far has run,
+ * so a pipelined burst is answered in a few writes instead of one per command.</p>
+ *
+ * <p>Each connection is served by its own thread, and at most {@code simba.server.connections} (64 by default)
+ * are served at once, so further clients are told the server is busy and disconnected. Commands from every
+ * connection run one at a time on a single thread, as they do in the GUI, since a task list is not safe to change
+ * from several threads. A connection waits for its command to run before reading the next one, so it has at
+ * most one command queued, and a client that sends faster than the commands run is held back by the socket
+ * buffers filling up rather than by the server queueing its commands without bound.</p>
+ *
+ * <pre>
+ *     java -cp simba.jar main.ui.Server 4242
+ *     java -cp simba.jar main.ui.Server --unix /tmp/simba.sock
+ * </pre>
+ */
+public class Server implements AutoCloseable {
+    static final int DEFAULT_PORT = 4242;
+    static final String END_OF_RESPONSE = ".";
+
+    private static final int MAX_CONNECTIONS = Math.max(1, Integer.getInteger("simba.server.connections", 64));
+
+    private final UnaryOperator<String> commands;
+    private final Semaphore connections;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    /**
+     * Initializes a new Server running commands through the specified function.
+     *
+     * @param commands       Returns the response to a command, eg. {@link Simba#getResponse(String)}.
+     * @param maxConnections The number of connections served at once.
+     */
+    Server(UnaryOperator<String> commands, int maxConnections) {
+        assert maxConnections > 0 : "At least one connection should be served";
+        this.commands = commands;
+        this.connections = new Semaphore(maxConnections);
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxConnections), runnable -> {
+                    Thread thread = new Thread(runnable, "simba-commands");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Serves Simba on the port given as an argument, {@link #DEFAULT_PORT} by default,
+     * or on the Unix domain socket at the path given after {@code --unix}.
+     *
+     * @param args The port, or {@code --unix} and the path of the socket.
+     * @throws IOException If the port or socket cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        ServerSocketChannel listener;
+        String address;
+        if (args.length >= 2 && args[0].equals("--unix")) {
+            Path path = Path.of(args[1]);
+            Files.deleteIfExists(path);
+            listener = ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(UnixDomainSocketAddress.of(path));
+            address = path.toString();
+        } else {
+            int port = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+            listener = ServerSocketChannel.open()
+                    .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            address = listener.getLocalAddress().toString();
+        }
+
+        Simba simba = new Simba();
+        System.out.println(simba.load());
+        Server server = new Server(simba::getResponse, MAX_CONNECTIONS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            simba.shutdown();
+        }, "simba-server-shutdown"));
+        System.out.println("Serving Simba on " + address);
+        server.serve(listener);
+    }
+
+    /**
+     * Accepts connections until the listener is closed, serving each on a thread of its own.
+     *
+     * @param listener The bound channel to accept connections on.
+     * @throws IOException If a connection cannot be accepted.
+     */
+    void serve(ServerSocketChannel listener) throws IOException {
+        try (listener) {
+            while (listener.isOpen()) {
+                SocketChannel client = listener.accept();
+                if (!this.connections.tryAcquire()) {
+                    this.reject(client);
+                    continue;
+                }
+                Thread thread = new Thread(() -> {
+                    try {
+                        this.handle(client);
+                    } finally {
+                        this.connections.release();
+                    }
+                }, "simba-client-" + this.connectionCount.incrementAndGet());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        } catch (ClosedChannelException e) {
+            // The listener was closed to stop the server.
+        }
+    }
+
+    /**
+     * Stops taking commands, and waits a few seconds for those already queued to run,
+     * so the tasks are not changed after the application starts to save them.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (client;
+             BufferedReader reader = new BufferedReader(Channels.newReader(client, StandardCharsets.UTF_8));
+             BufferedWriter writer = new BufferedWriter(Channels.newWriter(client, StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null && !line.equals("bye"); line = reader.readLine()) {
+                writeResponse(writer, line.isBlank() ? "" : this.run(line));
+                if (!reader.ready()) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // The client went away or the server is stopping, and the connection is closed either way.
+        }
+    }
+
+    private String run(String command) throws InterruptedException, IOException {
+        Future<String> response;
+        try {
+            response = this.executor.submit(() -> this.commands.apply(command));
+        } catch (RuntimeException e) {
+            throw new IOException("The server is stopping", e);
+        }
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            return "Something went wrong: " + e.getCause().getMessage();
+        }
+    }
+
+    private void reject(SocketChannel client) {
+        try (client; Writer writer = Channels.newWriter(client, StandardCharsets.UTF_8)) {
+            writeResponse(writer, "Server busy, try again later");
+        } catch (IOException e) {
+            // The client is turned away either way.
+        }
+    }
+
+    /**
+     * Writes the lines of a response followed by {@link #END_OF_RESPONSE}, doubling any dot a line starts with.
+     */
+    private static void writeResponse(Writer writer, String response) throws IOException {
+        int start = 0;
+        while (start < response.length()) {
+            int end = response.indexOf('\n', start);
+            if (end < 0) {
+                end = response.length();
+            }
+            if (response.startsWith(".", start)) {
+                writer.write('.');
+            }
+            writer.write(response, start, end - start);
+            writer.write('\n');
+            start = end + 1;
+        }
+        writer.write(END_OF_RESPONSE);
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,61 @@
+package main.ui;
+
+import java.time.Instant;
+
+/**
+ * Records how long each phase of startup took, from the start of the JVM, eg. until the window was shown
+ * and until the tasks were loaded.
+ *
+ * <p>The timings are printed to standard error once startup is complete if the {@code simba.timings} system
+ * property is set to {@code true}. Setting {@code simba.startup.exit} to {@code true} also exits the application
+ * at that point, which is how the class-data sharing archive is trained by the {@code cdsArchive} Gradle task.</p>
+ */
+final class StartupTimer {
+    static final boolean IS_REPORTING = Boolean.getBoolean("simba.timings");
+    static final boolean IS_EXITING = Boolean.getBoolean("simba.startup.exit");
+
+    private static final long START_NANOS = System.nanoTime();
+    private static final StringBuilder PHASES = new StringBuilder();
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Records that a phase of startup has just completed.
+     *
+     * @param phase The name of the phase, eg. "window shown".
+     */
+    static synchronized void mark(String phase) {
+        long millis = (System.nanoTime() - START_NANOS) / 1_000_000;
+        PHASES.append(PHASES.length() == 0 ? "" : ", ").append(phase).append(' ').append(millis).append(" ms");
+    }
+
+    /**
+     * Records the last phase of startup, and reports the timings or exits if asked to by the system properties.
+     *
+     * @param phase The name of the phase, eg. "tasks loaded".
+     */
+    static void finish(String phase) {
+        mark(phase);
+        if (IS_REPORTING) {
+            System.err.println(asString());
+        }
+        if (IS_EXITING) {
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Returns the timings of every phase recorded so far, measured from when this class was first used,
+     * and how long the JVM took to get there if the operating system reports when the process started.
+     *
+     * @return The timings on one line.
+     */
+    static synchronized String asString() {
+        String jvm = ProcessHandle.current().info().startInstant()
+                .map(start -> "JVM " + (Instant.now().toEpochMilli() - start.toEpochMilli()
+                        - (System.nanoTime() - START_NANOS) / 1_000_000) + " ms, then ")
+                .orElse("");
+        return "Startup: " + jvm + PHASES;
+    }
+}
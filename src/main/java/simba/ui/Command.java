@@ -0,0 +1,30 @@
+package simba.ui;
+
+import java.io.IOException;
+
+import exception.ui.DuplicateTaskException;
+import exception.ui.EmptyException;
+import exception.ui.InvalidCommandException;
+import exception.ui.InvalidEventDateException;
+
+/**
+ * Handles one kind of command entered by the user, eg. "list" or "mark".
+ * Commands are looked up by their first word in a {@link CommandRegistry}.
+ */
+@FunctionalInterface
+interface Command {
+
+    /**
+     * Runs the command and returns the response to show the user.
+     *
+     * @param command The whole command as entered by the user, including its first word.
+     * @return The response to the command.
+     * @throws EmptyException If the command lacks a description.
+     * @throws InvalidEventDateException If a start date is after its end date.
+     * @throws DuplicateTaskException If the command adds a task that already exists.
+     * @throws InvalidCommandException If the arguments of the command cannot be understood.
+     * @throws IOException If a change cannot be persisted.
+     */
+    String execute(String command) throws EmptyException, InvalidEventDateException, DuplicateTaskException,
+            InvalidCommandException, IOException;
+}
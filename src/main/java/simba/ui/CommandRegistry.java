@@ -0,0 +1,80 @@
+package simba.ui;
+
+/**
+ * Looks up the {@link Command} for a line of input by its first word.
+ * Words are kept in a trie of lower-case letters, so finding the command reads each character of the
+ * first word once and does not create any strings.
+ *
+ * <p>A word can have two commands: one for when it is entered on its own, eg. "list",
+ * and one for when it is followed by a space and arguments, eg. "list 2".</p>
+ */
+class CommandRegistry {
+    private final Node root = new Node();
+
+    /**
+     * A node of the trie, reached by the letters of a word from the root.
+     */
+    private static class Node {
+        private final Node[] children = new Node[26];
+        private Command exact;
+        private Command withArguments;
+    }
+
+    /**
+     * Registers the command to run when the word is entered on its own.
+     *
+     * @param word    The word, in lower-case letters.
+     * @param command The command to run.
+     */
+    void registerExact(String word, Command command) {
+        this.nodeFor(word).exact = command;
+    }
+
+    /**
+     * Registers the command to run when the word is followed by a space and its arguments.
+     *
+     * @param word    The word, in lower-case letters.
+     * @param command The command to run.
+     */
+    void register(String word, Command command) {
+        this.nodeFor(word).withArguments = command;
+    }
+
+    /**
+     * Finds the command for a line of input.
+     *
+     * @param input The line of input.
+     * @return The command registered for its first word, or {@code null} if there is none.
+     */
+    Command find(String input) {
+        Node node = this.root;
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == ' ') {
+                return i == 0 ? null : node.withArguments;
+            }
+            if (c < 'a' || c > 'z') {
+                return null;
+            }
+            node = node.children[c - 'a'];
+            if (node == null) {
+                return null;
+            }
+        }
+        return node.exact;
+    }
+
+    private Node nodeFor(String word) {
+        assert !word.isEmpty() : "Word should not be empty";
+        Node node = this.root;
+        for (int i = 0; i < word.length(); i++) {
+            int idx = word.charAt(i) - 'a';
+            assert idx >= 0 && idx < 26 : "Word should only have lower-case letters";
+            if (node.children[idx] == null) {
+                node.children[idx] = new Node();
+            }
+            node = node.children[idx];
+        }
+        return node;
+    }
+}
@@ -0,0 +1,139 @@
+package simba.ui;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Formats and parses the two fixed date layouts used by Simba:
+ * <ul>
+ *     <li>{@link #DISPLAY}, {@code dd MMM yyyy HH:mm}, in which tasks are shown and journaled.</li>
+ *     <li>{@link #INPUT}, {@code dd-MM-yyyy HHmm}, in which the user types dates.</li>
+ * </ul>
+ *
+ * <p>Dates are written and read digit by digit instead of through the general {@code java.time} parser.
+ * The month abbreviations are taken from {@link #DISPLAY} itself, so the output is the same as formatting
+ * with it in the default locale. Anything the fast path does not handle, eg. a year outside 1 to 9999,
+ * an invalid day of the month or a malformed string, is passed on to the formatter, so results and
+ * exceptions stay the same as well.</p>
+ */
+class DateCodec {
+    static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
+    static final DateTimeFormatter INPUT = DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm");
+
+    private static final String[] MONTHS = new String[12];
+
+    static {
+        DateTimeFormatter month = DateTimeFormatter.ofPattern("MMM");
+        for (int i = 0; i < 12; i++) {
+            MONTHS[i] = month.format(Month.of(i + 1));
+        }
+    }
+
+    /**
+     * Formats a date in the {@link #DISPLAY} layout.
+     *
+     * @param date The date to format.
+     * @return The formatted date, eg. {@code 07 Feb 2025 18:00}.
+     */
+    static String format(LocalDateTime date) {
+        int year = date.getYear();
+        if (year < 1 || year > 9999) {
+            return DISPLAY.format(date);
+        }
+        String month = MONTHS[date.getMonthValue() - 1];
+        StringBuilder result = new StringBuilder(14 + month.length());
+        appendDigits(result, date.getDayOfMonth(), 2).append(' ').append(month).append(' ');
+        appendDigits(result, year, 4).append(' ');
+        appendDigits(result, date.getHour(), 2).append(':');
+        appendDigits(result, date.getMinute(), 2);
+        return result.toString();
+    }
+
+    /**
+     * Parses a date in the {@link #DISPLAY} layout.
+     *
+     * @param text The date to parse.
+     * @return The parsed date.
+     * @throws DateTimeParseException If the text is not a valid date in the layout.
+     */
+    static LocalDateTime parseDisplay(String text) throws DateTimeParseException {
+        return parseDisplay(text, 0, text.length());
+    }
+
+    /**
+     * Parses a date in the {@link #DISPLAY} layout from part of a string, without copying it out first.
+     *
+     * @param text The string holding the date.
+     * @param from The index of the first character of the date.
+     * @param to   The index after the last character of the date.
+     * @return The parsed date.
+     * @throws DateTimeParseException If the part of the string is not a valid date in the layout.
+     */
+    static LocalDateTime parseDisplay(String text, int from, int to) throws DateTimeParseException {
+        if (to - from > 3 && text.charAt(from + 2) == ' ') {
+            for (int i = 0; i < 12; i++) {
+                String month = MONTHS[i];
+                int at = from + 3 + month.length();
+                if (to == at + 11 && text.startsWith(month, from + 3) && text.charAt(at) == ' '
+                        && text.charAt(at + 5) == ' ' && text.charAt(at + 8) == ':') {
+                    LocalDateTime date = toDate(digits(text, at + 1, 4), i + 1, digits(text, from, 2),
+                            digits(text, at + 6, 2), digits(text, at + 9, 2));
+                    if (date != null) {
+                        return date;
+                    }
+                    break;
+                }
+            }
+        }
+        return LocalDateTime.parse(text.substring(from, to), DISPLAY);
+    }
+
+    /**
+     * Parses a date in the {@link #INPUT} layout.
+     *
+     * @param text The date to parse.
+     * @return The parsed date.
+     * @throws DateTimeParseException If the text is not a valid date in the layout.
+     */
+    static LocalDateTime parseInput(String text) throws DateTimeParseException {
+        if (text.length() == 15 && text.charAt(2) == '-' && text.charAt(5) == '-' && text.charAt(10) == ' ') {
+            LocalDateTime date = toDate(digits(text, 6, 4), digits(text, 3, 2), digits(text, 0, 2),
+                    digits(text, 11, 2), digits(text, 13, 2));
+            if (date != null) {
+                return date;
+            }
+        }
+        return LocalDateTime.parse(text, INPUT);
+    }
+
+    private static LocalDateTime toDate(int year, int month, int day, int hour, int minute) {
+        if (year < 1 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        if (day > Month.of(month).length(year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute);
+    }
+
+    private static int digits(String text, int idx, int count) {
+        int value = 0;
+        for (int i = idx; i < idx + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static StringBuilder appendDigits(StringBuilder result, int value, int count) {
+        for (int divisor = count == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            result.append((char) ('0' + value / divisor % 10));
+        }
+        return result;
+    }
+}
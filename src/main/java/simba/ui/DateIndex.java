@@ -0,0 +1,190 @@
+package simba.ui;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An index over the dates of the tasks in a {@link TaskList}.
+ * It keeps two structures:
+ * <ul>
+ *     <li>Deadlines, in a sorted map from their due date, so that a date range matches a contiguous range of keys.</li>
+ *     <li>Events, in an interval tree ordered by {@link TaskComparator} where every node also holds the latest
+ *     end date in its subtree, so that subtrees which end before a range can be skipped.</li>
+ * </ul>
+ * Both ranges and intervals are inclusive of their start and end dates.
+ */
+class DateIndex {
+    private static final TaskComparator ORDER = new TaskComparator();
+
+    private final TreeMap<LocalDateTime, Set<Task>> deadlines = new TreeMap<>();
+    private final Random priorities = new Random();
+    private Node events;
+
+    /**
+     * A node of the interval tree, balanced as a treap by a random priority.
+     */
+    private static class Node {
+        private final Task event;
+        private final int priority;
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(Task event, int priority) {
+            this.event = event;
+            this.priority = priority;
+            this.maxEnd = event.getEndDate();
+        }
+    }
+
+    /**
+     * Adds a task to the index. ToDo tasks have no dates and are ignored.
+     *
+     * @param task The task to add.
+     */
+    void add(Task task) {
+        if (task instanceof Deadline) {
+            this.deadlines.computeIfAbsent(task.getDate(), key -> new HashSet<>()).add(task);
+        } else if (task instanceof Event) {
+            this.events = this.insert(this.events, task);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        if (task instanceof Deadline) {
+            Set<Task> due = this.deadlines.get(task.getDate());
+            if (due != null) {
+                due.remove(task);
+                if (due.isEmpty()) {
+                    this.deadlines.remove(task.getDate());
+                }
+            }
+        } else if (task instanceof Event) {
+            this.events = delete(this.events, task);
+        }
+    }
+
+    /**
+     * Finds the deadlines that are due within the specified range.
+     *
+     * @param from The start of the range.
+     * @param to   The end of the range.
+     * @return The deadlines due from {@code from} to {@code to}.
+     */
+    Collection<Task> dueBetween(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Task> result = new ArrayList<>();
+        for (Set<Task> due : this.deadlines.subMap(from, true, to, true).values()) {
+            result.addAll(due);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the events whose time overlaps the specified range, and the deadlines due within it.
+     *
+     * @param from The start of the range.
+     * @param to   The end of the range.
+     * @return The tasks that overlap the range.
+     */
+    Collection<Task> overlapping(LocalDateTime from, LocalDateTime to) {
+        ArrayList<Task> result = new ArrayList<>(this.dueBetween(from, to));
+        collectOverlapping(this.events, from, to, result);
+        return result;
+    }
+
+    private Node insert(Node node, Task event) {
+        if (node == null) {
+            return new Node(event, this.priorities.nextInt());
+        }
+        if (ORDER.compare(event, node.event) < 0) {
+            node.left = this.insert(node.left, event);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = this.insert(node.right, event);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node delete(Node node, Task event) {
+        if (node == null) {
+            return null;
+        }
+        int result = ORDER.compare(event, node.event);
+        if (result < 0) {
+            node.left = delete(node.left, event);
+        } else if (result > 0) {
+            node.right = delete(node.right, event);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.priority > node.right.priority) {
+            node = rotateRight(node);
+            node.right = delete(node.right, event);
+        } else {
+            node = rotateLeft(node);
+            node.left = delete(node.left, event);
+        }
+        update(node);
+        return node;
+    }
+
+    private static void collectOverlapping(Node node, LocalDateTime from, LocalDateTime to, ArrayList<Task> result) {
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, result);
+        if (node.event.getDate().isAfter(to)) {
+            return;
+        }
+        if (!node.event.getEndDate().isBefore(from)) {
+            result.add(node.event);
+        }
+        collectOverlapping(node.right, from, to, result);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node top = node.left;
+        node.left = top.right;
+        top.right = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node top = node.right;
+        node.right = top.left;
+        top.left = node;
+        update(node);
+        update(top);
+        return top;
+    }
+
+    private static void update(Node node) {
+        LocalDateTime maxEnd = node.event.getEndDate();
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+}
@@ -1,6 +1,7 @@
 package simba.ui;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 /**
  * Represents a Deadline task that extends the {@link Task} class.
@@ -37,6 +38,15 @@ public class Deadline extends Task {
         return "Deadline";
     }
 
+    /**
+     * Returns the position of Deadline tasks in the order tasks are listed.
+     *
+     * @return 0, as Deadline tasks are listed first.
+     */
+    int getTypeOrder() {
+        return 0;
+    }
+
     /**
      * Retrieves the deadline of the task.
      *
@@ -77,6 +87,16 @@ public class Deadline extends Task {
                 && this.getDate().equals(objAsDeadline.getDate());
     }
 
+    /**
+     * Returns a hash code based on the name and deadline of the task.
+     *
+     * @return The hash code of the task.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getName(), this.deadline);
+    }
+
     /**
      * Returns a string representation of the Deadline task.
      *
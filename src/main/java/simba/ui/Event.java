@@ -1,6 +1,7 @@
 package simba.ui;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 
 /**
@@ -44,6 +45,15 @@ public class Event extends Task {
         return "Event";
     }
 
+    /**
+     * Returns the position of Event tasks in the order tasks are listed.
+     *
+     * @return 1, as Event tasks are listed after Deadline tasks and before ToDo tasks.
+     */
+    int getTypeOrder() {
+        return 1;
+    }
+
     /**
      * Retrieves the start time of the event.
      *
@@ -84,7 +94,17 @@ public class Event extends Task {
         Event objAsEvent = (Event) obj;
         return this.getName().equals(objAsEvent.getName())
                 && this.getDate().equals(objAsEvent.getDate())
-                && this.getEndDate().equals(objAsEvent.getDate());
+                && this.getEndDate().equals(objAsEvent.getEndDate());
+    }
+
+    /**
+     * Returns a hash code based on the name, start time and end time of the event.
+     *
+     * @return The hash code of the task.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.getName(), this.start, this.end);
     }
 
     /**
@@ -0,0 +1,248 @@
+package simba.ui;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes the task list in the background, coalescing bursts of changes into a single write.
+ *
+ * <p>A change only marks the list dirty. The first change after a write schedules the next one
+ * {@code intervalMillis} later, and reaching {@code mutationLimit} unwritten changes writes at once,
+ * so at most that window of changes is lost if the application is killed.
+ * The list is only held for the moment it takes to snapshot it (see {@link TaskStore#snapshot()}), holding its
+ * monitor, which is also held by {@link TaskList} while it changes the list. The snapshot is then encoded
+ * and written without holding the monitor, so changes carry on while it is written.</p>
+ *
+ * <p>It also keeps counters of how many changes were made, how many writes they were coalesced into,
+ * and how long the writes took, which are shown by the stats command.</p>
+ */
+class Flusher {
+    /**
+     * Writes an encoded snapshot of the task list to disk.
+     */
+    interface Writer {
+        /**
+         * Writes the snapshot and forces it to disk.
+         *
+         * @param snapshot The encoded task list.
+         * @throws IOException If the snapshot cannot be written.
+         */
+        void write(ByteBuffer snapshot) throws IOException;
+    }
+
+    private final long intervalMillis;
+    private final int mutationLimit;
+    private final Writer writer;
+    private final ScheduledExecutorService executor;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private TaskStore dirty;
+    private int pending;
+    private long oldestChange;
+    private ScheduledFuture<?> scheduled;
+    private boolean isSubmitted;
+    private long taken;
+    private long written;
+    private int inFlight;
+
+    private long mutations;
+    private long flushes;
+    private long failures;
+    private long lastFlushNanos;
+    private long totalFlushNanos;
+
+    /**
+     * Initializes a new Flusher writing through the specified writer.
+     *
+     * @param intervalMillis The longest a change is left unwritten, in milliseconds.
+     * @param mutationLimit  The number of unwritten changes after which they are written at once.
+     * @param writer         Writes the encoded task list to disk.
+     */
+    Flusher(long intervalMillis, int mutationLimit, Writer writer) {
+        assert intervalMillis >= 0 && mutationLimit > 0 : "The flush window should be positive";
+        this.intervalMillis = intervalMillis;
+        this.mutationLimit = mutationLimit;
+        this.writer = writer;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "simba-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Marks the task list dirty after a change, scheduling a write if none is pending.
+     *
+     * @param list The task list after the change.
+     */
+    synchronized void markDirty(TaskStore list) {
+        this.dirty = list;
+        this.mutations++;
+        if (this.pending++ == 0) {
+            this.oldestChange = System.nanoTime();
+            this.scheduled = this.executor.schedule(this::flushQuietly, this.intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        if (this.pending >= this.mutationLimit && !this.isSubmitted) {
+            this.isSubmitted = true;
+            this.executor.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Writes the task list as soon as possible on the background thread, eg. after the whole list was replaced.
+     * Unlike {@link #flush()}, this does not wait, so it can be called while holding the monitor of the list.
+     */
+    synchronized void flushSoon() {
+        if (this.dirty != null && !this.isSubmitted) {
+            this.isSubmitted = true;
+            this.executor.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Writes the task list now if it has unwritten changes, on the calling thread,
+     * and waits for any write already in progress to finish.
+     *
+     * <p>The monitor of the list is only held while the snapshot is taken, never while waiting for another write,
+     * so the list keeps changing while a write is in progress. Each flush takes a sequence number along with the
+     * changes, and as every snapshot is taken after its changes were, a flush whose snapshot is older than one
+     * already written has nothing to add and is dropped. This should not be called while holding the monitor
+     * of the list, as it waits for writes in progress.</p>
+     *
+     * @throws IOException If the task list cannot be written.
+     */
+    void flush() throws IOException {
+        TaskStore list;
+        int flushed;
+        long oldest;
+        long sequence;
+        synchronized (this) {
+            list = this.dirty;
+            if (list == null) {
+                this.awaitWrites();
+                list = this.dirty;
+                if (list == null) {
+                    return;
+                }
+            }
+            flushed = this.pending;
+            oldest = this.oldestChange;
+            sequence = ++this.taken;
+            this.dirty = null;
+            this.pending = 0;
+            this.isSubmitted = false;
+            if (this.scheduled != null) {
+                this.scheduled.cancel(false);
+                this.scheduled = null;
+            }
+            this.inFlight++;
+        }
+
+        try {
+            TaskStore snapshot;
+            synchronized (list) {
+                snapshot = list.snapshot();
+            }
+            this.writeLock.lock();
+            try {
+                if (sequence < this.written) {
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    this.writer.write(SnapshotCodec.encode(snapshot));
+                } catch (IOException | RuntimeException e) {
+                    this.restore(list, flushed, oldest);
+                    throw e;
+                }
+                this.written = sequence;
+                long elapsed = System.nanoTime() - start;
+                synchronized (this) {
+                    this.flushes++;
+                    this.lastFlushNanos = elapsed;
+                    this.totalFlushNanos += elapsed;
+                }
+            } finally {
+                this.writeLock.unlock();
+            }
+        } finally {
+            synchronized (this) {
+                this.inFlight--;
+                this.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits for the writes in progress to finish. A write that fails leaves its changes dirty again.
+     */
+    private synchronized void awaitWrites() throws IOException {
+        while (this.inFlight > 0) {
+            try {
+                this.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the task list to be written");
+            }
+        }
+    }
+
+    /**
+     * Writes the task list if it has unwritten changes, and stops the background thread.
+     *
+     * @throws IOException If the task list cannot be written.
+     */
+    void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.executor.shutdownNow();
+        }
+    }
+
+    private synchronized void restore(TaskStore list, int flushed, long oldest) {
+        this.failures++;
+        this.dirty = list;
+        if (this.pending == 0 || oldest - this.oldestChange < 0) {
+            this.oldestChange = oldest;
+        }
+        this.pending += flushed;
+        if (this.scheduled == null) {
+            this.scheduled = this.executor.schedule(this::flushQuietly, this.intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            this.flush();
+        } catch (IOException | RuntimeException e) {
+            // The changes stay dirty and are written again by the next scheduled flush.
+        }
+    }
+
+    /**
+     * Returns the counters of changes and writes made so far.
+     *
+     * @return The counters, one per line.
+     */
+    synchronized String statsAsString() {
+        long age = this.pending == 0 ? 0 : (System.nanoTime() - this.oldestChange) / 1_000_000;
+        return "Writes are deferred for up to " + this.intervalMillis + " ms or " + this.mutationLimit
+                + " change(s)\n"
+                + "Changes: " + this.mutations + ", written in " + this.flushes + " flush(es)"
+                + (this.failures == 0 ? "" : ", " + this.failures + " failed") + "\n"
+                + "Unwritten: " + this.pending + " change(s), oldest " + age + " ms ago\n"
+                + "Flush time: last " + formatMillis(this.lastFlushNanos) + " ms, average "
+                + formatMillis(this.flushes == 0 ? 0 : this.totalFlushNanos / this.flushes) + " ms";
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,161 @@
+package simba.ui;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+
+/**
+ * The changes made to a task list by the latest commands, which can be undone and redone.
+ *
+ * <p>Each command that changes the list is kept as a {@link Step} holding the changes it made, in the form they
+ * are journaled (see {@link Journal}). Undoing a step applies the opposite of each of its changes in reverse,
+ * and redoing it applies them again, so a step only costs as much memory as the tasks it changed rather than
+ * a copy of the list. The tasks in a step are shared with nothing that changes them in place,
+ * as tasks are only marked and unmarked through {@link Task#withDone(boolean)}.</p>
+ *
+ * <p>At most {@code depth} steps are kept, which can be changed through the {@code simba.undo.depth}
+ * system property, and the oldest steps are forgotten beyond that. Making a new change forgets every step
+ * that was undone, as they can no longer be redone.</p>
+ */
+class History {
+    static final int DEPTH = Math.max(0, Integer.getInteger("simba.undo.depth", 50));
+
+    private final int depth;
+    private final ArrayDeque<Step> undoable = new ArrayDeque<>();
+    private final ArrayDeque<Step> redoable = new ArrayDeque<>();
+    private Step current;
+
+    /**
+     * The changes made by a single command, in the order they were made.
+     */
+    static class Step {
+        private final String command;
+        private final StringBuilder ops = new StringBuilder();
+        private final ArrayList<Task> tasks = new ArrayList<>();
+
+        private Step(String command) {
+            this.command = command;
+        }
+
+        /**
+         * Returns the command that made the changes.
+         *
+         * @return The command.
+         */
+        String getCommand() {
+            return this.command;
+        }
+
+        /**
+         * Returns the number of changes in the step.
+         *
+         * @return The number of changes.
+         */
+        int size() {
+            return this.tasks.size();
+        }
+
+        /**
+         * Returns the kind of a change, one of the {@link Journal} record types.
+         *
+         * @param idx The position of the change in the step.
+         * @return The kind of change.
+         */
+        char opAt(int idx) {
+            return this.ops.charAt(idx);
+        }
+
+        /**
+         * Returns the task a change was made to, as it was before the change.
+         *
+         * @param idx The position of the change in the step.
+         * @return The task.
+         */
+        Task taskAt(int idx) {
+            return this.tasks.get(idx);
+        }
+    }
+
+    /**
+     * Initializes a new empty History.
+     *
+     * @param depth The number of steps kept.
+     */
+    History(int depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Starts the step of a command, which every change recorded until {@link #finish()} belongs to.
+     *
+     * @param command The command making the changes.
+     */
+    void start(String command) {
+        this.current = new Step(command);
+    }
+
+    /**
+     * Records a change made by the current command. Changes made outside a command are not recorded.
+     *
+     * @param op   The kind of change, one of the {@link Journal} record types.
+     * @param task The task being changed, as it is before the change.
+     */
+    void record(char op, Task task) {
+        if (this.current != null) {
+            this.current.ops.append(op);
+            this.current.tasks.add(task);
+        }
+    }
+
+    /**
+     * Finishes the step of the current command, keeping it to be undone if it changed anything.
+     */
+    void finish() {
+        Step step = this.current;
+        this.current = null;
+        if (step == null || step.size() == 0 || this.depth == 0) {
+            return;
+        }
+        this.redoable.clear();
+        this.undoable.push(step);
+        if (this.undoable.size() > this.depth) {
+            this.undoable.removeLast();
+        }
+    }
+
+    /**
+     * Stops the step of the current command without keeping it, eg. so that its changes can be rolled back.
+     *
+     * @return The step, or {@code null} if no command is running.
+     */
+    Step abandon() {
+        Step step = this.current;
+        this.current = null;
+        return step;
+    }
+
+    /**
+     * Takes the latest step that has not been undone, so that it can be redone afterwards.
+     *
+     * @return The step, or {@code null} if there is nothing to undo.
+     */
+    Step undo() {
+        Step step = this.undoable.poll();
+        if (step != null) {
+            this.redoable.push(step);
+        }
+        return step;
+    }
+
+    /**
+     * Takes the latest step that was undone, so that it can be undone again afterwards.
+     *
+     * @return The step, or {@code null} if there is nothing to redo.
+     */
+    Step redo() {
+        Step step = this.redoable.poll();
+        if (step != null) {
+            this.undoable.push(step);
+        }
+        return step;
+    }
+}
@@ -0,0 +1,178 @@
+package simba.ui;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * An append-only write-ahead log of task mutations.
+ * Every record is a single line of the form {@code <op> <task>}, where {@code op} is one of
+ * {@link #ADD}, {@link #MARK}, {@link #UNMARK} or {@link #DELETE} and {@code task} is the
+ * display form of the task that was changed, eg. {@code M [T] [ ] borrow book}.
+ * An added task is also numbered with its id, eg. {@code A 12. [T] [ ] borrow book},
+ * so it is given the same id when the journal is replayed.
+ *
+ * <p>Records can also be buffered in memory and written together with a single force to disk
+ * (see {@link #buffer(char, Task)} and {@link #flush()}), which is how a batch of commands is journaled.</p>
+ *
+ * <p>Records identify tasks by their content rather than their position in the list,
+ * so replaying a journal over a snapshot that already contains some of its records
+ * gives the same result as replaying it over the snapshot it was written against.</p>
+ */
+class Journal {
+    static final char ADD = 'A';
+    static final char MARK = 'M';
+    static final char UNMARK = 'U';
+    static final char DELETE = 'D';
+
+    private final Path path;
+    private FileChannel channel;
+    private long size;
+    private final StringBuilder buffered = new StringBuilder();
+
+    /**
+     * Opens the journal at the specified path for appending, creating it if it does not exist.
+     *
+     * @param path The path of the journal file.
+     * @throws IOException If the journal cannot be opened.
+     */
+    Journal(Path path) throws IOException {
+        this.path = path;
+        this.open();
+    }
+
+    /**
+     * Appends one record to the journal and forces it to disk,
+     * so a crash loses at most the record being written.
+     *
+     * @param op   The mutation being recorded.
+     * @param task The task the mutation applies to.
+     * @throws IOException If the record cannot be written.
+     */
+    void append(char op, Task task) throws IOException {
+        this.buffer(op, task);
+        this.flush();
+    }
+
+    /**
+     * Adds one record to the records waiting to be written by {@link #flush()}.
+     *
+     * @param op   The mutation being recorded.
+     * @param task The task the mutation applies to.
+     */
+    void buffer(char op, Task task) {
+        this.buffered.append(op).append(' ');
+        if (op == ADD && task.getId() > 0) {
+            this.buffered.append(task.getId()).append(". ");
+        }
+        this.buffered.append(task).append('\n');
+    }
+
+    /**
+     * Writes every buffered record to the journal and forces them to disk together.
+     *
+     * @throws IOException If the records cannot be written.
+     */
+    void flush() throws IOException {
+        if (this.buffered.length() == 0) {
+            return;
+        }
+        byte[] records = this.buffered.toString().getBytes(StandardCharsets.UTF_8);
+        this.buffered.setLength(0);
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+        this.channel.force(false);
+        this.size += records.length;
+    }
+
+    /**
+     * Returns the number of bytes written to the journal.
+     *
+     * @return The size of the journal in bytes.
+     */
+    long size() {
+        return this.size;
+    }
+
+    /**
+     * Drops every buffered record without writing it, eg. when a batch of changes is rolled back.
+     */
+    void discard() {
+        this.buffered.setLength(0);
+    }
+
+    /**
+     * Moves the current journal to the specified path and starts a new, empty journal.
+     *
+     * @param target The path the current journal is moved to.
+     * @throws IOException If the journal cannot be moved or reopened.
+     */
+    void rotateTo(Path target) throws IOException {
+        this.channel.close();
+        Files.move(this.path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.open();
+    }
+
+    /**
+     * Discards every record in the journal.
+     *
+     * @throws IOException If the journal cannot be truncated.
+     */
+    void clear() throws IOException {
+        this.buffered.setLength(0);
+        this.channel.truncate(0);
+        this.channel.force(false);
+        this.size = 0;
+    }
+
+    /**
+     * Writes any buffered records and closes the journal.
+     *
+     * @throws IOException If the records cannot be written or the journal cannot be closed.
+     */
+    void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Reads the complete records of a journal file.
+     * A trailing record without a line terminator was torn by a crash and is left out.
+     *
+     * @param path The path of the journal file.
+     * @return The records in the order they were written, or an empty list if the file does not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    static ArrayList<String> readRecords(Path path) throws IOException {
+        ArrayList<String> records = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return records;
+        }
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        int start = 0;
+        int end = content.indexOf('\n');
+        while (end >= 0) {
+            records.add(content.substring(start, end));
+            start = end + 1;
+            end = content.indexOf('\n', start);
+        }
+        return records;
+    }
+
+    private void open() throws IOException {
+        this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.size = this.channel.size();
+    }
+}
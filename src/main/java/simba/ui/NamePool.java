@@ -0,0 +1,305 @@
+package simba.ui;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A compact dictionary of task names, which gives every distinct name an id and stores its UTF-8 bytes once,
+ * however many tasks share it, eg. a recurring "standup" or "pay rent".
+ *
+ * <p>The bytes of every name are packed back to back in a single arena, and looked up through an open-addressing
+ * hash table of ids, so the pool holds a few arrays rather than an object per name. Hashes are not kept,
+ * but computed from the bytes again when the table is probed or grown. Each name counts the tasks
+ * using it, and once none do its id is reused and its bytes are left in the arena until they make up half of it,
+ * when the arena is packed again.</p>
+ *
+ * <p>Interning can be turned off with the {@code simba.intern} system property, in which case every name gets
+ * its own id and bytes, as if no two names were the same.</p>
+ */
+class NamePool {
+    static final boolean IS_INTERNING = Boolean.parseBoolean(System.getProperty("simba.intern", "true"));
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_PACKED_SIZE = 256;
+
+    private final boolean isInterning;
+    private byte[] bytes = new byte[INITIAL_CAPACITY * 16];
+    private int bytesSize;
+    private int garbageSize;
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] refs = new int[INITIAL_CAPACITY];
+    private int size;
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int distinct;
+    private long referencedBytes;
+
+    /**
+     * Initializes a new empty NamePool.
+     *
+     * @param isInterning Whether tasks with the same name share a single entry.
+     */
+    NamePool(boolean isInterning) {
+        this.isInterning = isInterning;
+    }
+
+    /**
+     * Returns a copy of the pool that changes independently of it, eg. for a store whose snapshot shares this one.
+     *
+     * @return The copy.
+     */
+    NamePool copy() {
+        NamePool copy = new NamePool(this.isInterning);
+        copy.bytes = this.bytes.clone();
+        copy.bytesSize = this.bytesSize;
+        copy.garbageSize = this.garbageSize;
+        copy.offsets = this.offsets.clone();
+        copy.lengths = this.lengths.clone();
+        copy.refs = this.refs.clone();
+        copy.size = this.size;
+        copy.freeIds = this.freeIds.clone();
+        copy.freeCount = this.freeCount;
+        copy.table = this.table.clone();
+        copy.distinct = this.distinct;
+        copy.referencedBytes = this.referencedBytes;
+        return copy;
+    }
+
+    /**
+     * Adds a reference to a name, returning the id of the entry holding it.
+     *
+     * @param name The name.
+     * @return The id of the name.
+     */
+    int add(String name) {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        return this.add(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Adds a reference to a UTF-8 encoded name, returning the id of the entry holding it.
+     *
+     * @param source The array holding the name.
+     * @param from   The index of the first byte of the name.
+     * @param length The length of the name in bytes.
+     * @return The id of the name.
+     */
+    int add(byte[] source, int from, int length) {
+        if (this.isInterning) {
+            int id = this.find(source, from, length);
+            if (id >= 0) {
+                this.refs[id]++;
+                this.referencedBytes += length;
+                return id;
+            }
+        }
+
+        int id = this.newId();
+        if (this.bytesSize + length > this.bytes.length) {
+            this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytesSize + length, this.bytes.length * 2));
+        }
+        System.arraycopy(source, from, this.bytes, this.bytesSize, length);
+        this.offsets[id] = this.bytesSize;
+        this.lengths[id] = length;
+        this.refs[id] = 1;
+        this.bytesSize += length;
+        this.referencedBytes += length;
+        this.distinct++;
+        if (this.isInterning && this.distinct * 4 > this.table.length * 3) {
+            this.rehash(this.table.length * 2);
+        } else if (this.isInterning) {
+            this.insert(id);
+        }
+        return id;
+    }
+
+    /**
+     * Finds the id of a name without adding a reference to it.
+     *
+     * @param name The name.
+     * @return The id of the name, or -1 if it is not in the pool or names are not interned.
+     */
+    int find(String name) {
+        if (!this.isInterning) {
+            return -1;
+        }
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        return this.find(encoded, 0, encoded.length);
+    }
+
+    private int find(byte[] source, int from, int length) {
+        int mask = this.table.length - 1;
+        for (int slot = hash(source, from, length) & mask; this.table[slot] != 0; slot = (slot + 1) & mask) {
+            int id = this.table[slot] - 1;
+            int offset = this.offsets[id];
+            if (this.lengths[id] == length
+                    && Arrays.equals(this.bytes, offset, offset + length, source, from, from + length)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Removes a reference to a name, dropping the name once no task refers to it.
+     *
+     * @param id The id of the name.
+     */
+    void release(int id) {
+        assert this.refs[id] > 0 : "A name should only be released while it is referred to";
+        this.referencedBytes -= this.lengths[id];
+        if (--this.refs[id] > 0) {
+            return;
+        }
+        if (this.isInterning) {
+            this.delete(id);
+        }
+        this.garbageSize += this.lengths[id];
+        this.distinct--;
+        if (this.freeCount == this.freeIds.length) {
+            this.freeIds = Arrays.copyOf(this.freeIds, this.freeCount * 2);
+        }
+        this.freeIds[this.freeCount++] = id;
+        this.packIfSparse();
+    }
+
+    /**
+     * Returns the name with the specified id.
+     *
+     * @param id The id of the name.
+     * @return The name.
+     */
+    String get(int id) {
+        return new String(this.bytes, this.offsets[id], this.lengths[id], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the length of the name with the specified id.
+     *
+     * @param id The id of the name.
+     * @return The length of the UTF-8 encoded name in bytes.
+     */
+    int length(int id) {
+        return this.lengths[id];
+    }
+
+    /**
+     * Copies the UTF-8 encoded name with the specified id into a buffer.
+     *
+     * @param id     The id of the name.
+     * @param buffer The buffer to copy the name into, at its position.
+     */
+    void copyTo(int id, ByteBuffer buffer) {
+        buffer.put(this.bytes, this.offsets[id], this.lengths[id]);
+    }
+
+    /**
+     * Returns whether tasks with the same name share a single entry,
+     * so that two names are equal exactly when their ids are.
+     *
+     * @return {@code true} if names are interned, {@code false} otherwise.
+     */
+    boolean isInterning() {
+        return this.isInterning;
+    }
+
+    /**
+     * Returns how many distinct names the pool holds and how many bytes sharing them saves.
+     *
+     * @return The statistics of the pool.
+     */
+    String statsAsString() {
+        long storedBytes = this.bytesSize - this.garbageSize;
+        if (!this.isInterning) {
+            return "Names are not interned, " + storedBytes + " byte(s) stored";
+        }
+        return "Names: " + this.distinct + " distinct, " + storedBytes + " byte(s) stored for "
+                + this.referencedBytes + " byte(s) of names (" + (this.referencedBytes - storedBytes) + " saved)";
+    }
+
+    private int newId() {
+        if (this.freeCount > 0) {
+            return this.freeIds[--this.freeCount];
+        }
+        if (this.size == this.offsets.length) {
+            int grown = this.size * 2;
+            this.offsets = Arrays.copyOf(this.offsets, grown);
+            this.lengths = Arrays.copyOf(this.lengths, grown);
+            this.refs = Arrays.copyOf(this.refs, grown);
+        }
+        return this.size++;
+    }
+
+    private void insert(int id) {
+        int mask = this.table.length - 1;
+        int slot = this.hashOf(id) & mask;
+        while (this.table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        this.table[slot] = id + 1;
+    }
+
+    /**
+     * Removes an id from the hash table, shifting back the entries after it that would otherwise
+     * no longer be found from their home slot.
+     */
+    private void delete(int id) {
+        int mask = this.table.length - 1;
+        int hole = this.hashOf(id) & mask;
+        while (this.table[hole] != id + 1) {
+            hole = (hole + 1) & mask;
+        }
+        this.table[hole] = 0;
+        for (int slot = (hole + 1) & mask; this.table[slot] != 0; slot = (slot + 1) & mask) {
+            int home = this.hashOf(this.table[slot] - 1) & mask;
+            boolean isReachable = hole <= slot ? hole < home && home <= slot : hole < home || home <= slot;
+            if (!isReachable) {
+                this.table[hole] = this.table[slot];
+                this.table[slot] = 0;
+                hole = slot;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        this.table = new int[capacity];
+        for (int id = 0; id < this.size; id++) {
+            if (this.refs[id] > 0) {
+                this.insert(id);
+            }
+        }
+    }
+
+    private void packIfSparse() {
+        if (this.garbageSize < MIN_PACKED_SIZE || this.garbageSize * 2 < this.bytesSize) {
+            return;
+        }
+        byte[] packed = new byte[Math.max(MIN_PACKED_SIZE, this.bytesSize - this.garbageSize)];
+        int offset = 0;
+        for (int id = 0; id < this.size; id++) {
+            if (this.refs[id] > 0) {
+                System.arraycopy(this.bytes, this.offsets[id], packed, offset, this.lengths[id]);
+                this.offsets[id] = offset;
+                offset += this.lengths[id];
+            }
+        }
+        this.bytes = packed;
+        this.bytesSize = offset;
+        this.garbageSize = 0;
+    }
+
+    private int hashOf(int id) {
+        return hash(this.bytes, this.offsets[id], this.lengths[id]);
+    }
+
+    private static int hash(byte[] source, int from, int length) {
+        int hash = 1;
+        for (int i = from; i < from + length; i++) {
+            hash = 31 * hash + source[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,10 +1,13 @@
 package simba.ui;
 
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.BitSet;
 
 import exception.ui.EmptyException;
+import exception.ui.InvalidCommandException;
 import exception.ui.InvalidEventDateException;
 
 /**
@@ -15,11 +18,17 @@ import exception.ui.InvalidEventDateException;
  * <p>This class supports:
  * <ul>
  *     <li>Creating tasks from user input</li>
- *     <li>Extracting task indices for deletion</li>
+ *     <li>Extracting the task numbers, ranges and ids to mark, unmark or delete</li>
  *     <li>Parsing date strings into {@link LocalDateTime} objects</li>
+ *     <li>Extracting the date range of "due" and "overlaps" commands</li>
+ *     <li>Extracting the page to show from a "list" command</li>
+ *     <li>Extracting the path of the file to run, import or export</li>
+ *     <li>Extracting the name of the workspace to open or switch to</li>
  * </ul>
  */
 public class Parser {
+    static final int PAGE_SIZE = 50;
+
     private final String command;
 
     /**
@@ -39,35 +48,49 @@ public class Parser {
      * @throws DateTimeParseException If the input string is not in the expected format.
      */
     private static LocalDateTime readDate(String input) throws DateTimeParseException {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HHmm");
-        return LocalDateTime.parse(input, formatter);
+        return DateCodec.parseInput(input);
     }
 
     /**
-     * Extracts the index of the task to be marked, unmarked or deleted from the command.
+     * Extracts the positions of the tasks to be marked, unmarked or deleted from the command,
+     * as task numbers, ranges of them and ids of tasks separated by commas, eg. "delete 3,7,9-20,#42",
+     * or "all" of them. Task numbers are positions in the list, which change as tasks are added and deleted,
+     * while the id of a task, as shown when it is added, stays the same.
+     * Positions beyond the end of the list, and ids of tasks not in it, are only kept as the position right after
+     * the end of the list, so a range far beyond the end is reported as missing rather than allocated.
      *
-     * @return The task index as an integer.
-     */
-    int idxToUse() {
-        return Integer.parseInt(this.command.substring(this.command.length() - 1));
-    }
-
-    /**
-     * Parses the command and creates a corresponding task object.
-     *
-     * @return A task object of type {@link ToDo}, {@link Deadline}, or {@link Event}.
-     * @throws EmptyException If the command is invalid or lacks a description.
-     * @throws DateTimeParseException If the date format is incorrect.
-     * @throws InvalidEventDateException If an event's start date is after the end date.
+     * @param tasks The list of tasks.
+     * @return The positions of the tasks, counting from 0.
+     * @throws InvalidCommandException If the command does not list task numbers, ranges or ids.
      */
-    Task taskToAdd() throws EmptyException, DateTimeParseException, InvalidEventDateException {
-        if (this.command.substring(0, 4).equals("todo")) {
-            return this.parseToDo();
-        } else if (this.command.substring(0, 5).equals("event")) {
-            return this.parseEvent();
-        } else {
-            return this.parseDeadline();
+    BitSet positionsToUse(TaskStore tasks) throws InvalidCommandException {
+        String selection = this.command.substring(this.command.indexOf(' ') + 1).trim();
+        int size = tasks.size();
+        BitSet positions = new BitSet();
+        if (selection.equals("all")) {
+            positions.set(0, size);
+            return positions;
         }
+        try {
+            for (String part : selection.split(",", -1)) {
+                part = part.trim();
+                if (part.startsWith("#")) {
+                    int position = tasks.positionOf(Integer.parseInt(part.substring(1)));
+                    positions.set(position < 0 ? size : position);
+                    continue;
+                }
+                int dash = part.indexOf('-');
+                int first = Integer.parseInt(part.substring(0, dash < 0 ? part.length() : dash).trim());
+                int last = dash < 0 ? first : Integer.parseInt(part.substring(dash + 1).trim());
+                if (first < 1 || last < first) {
+                    throw new InvalidCommandException(this.command);
+                }
+                positions.set(Math.min(first, size + 1) - 1, Math.min(last, size + 1));
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidCommandException(this.command);
+        }
+        return positions;
     }
 
     /**
@@ -76,7 +99,7 @@ public class Parser {
      * @return A {@link ToDo} task instance.
      * @throws EmptyException If the task description is empty.
      */
-    private ToDo parseToDo() throws EmptyException {
+    ToDo parseToDo() throws EmptyException {
         if (this.command.length() < 6) {
             throw new EmptyException("ToDo");
         }
@@ -90,16 +113,15 @@ public class Parser {
      * @throws EmptyException If the task description or deadline is missing.
      * @throws DateTimeParseException If the deadline format is incorrect.
      */
-    private Deadline parseDeadline() throws EmptyException, DateTimeParseException {
+    Deadline parseDeadline() throws EmptyException, DateTimeParseException {
         if (this.command.length() < 10) {
             throw new EmptyException("Deadline");
         }
-        for (int i = 0; i < this.command.length(); i++) {
-            if (this.command.substring(i, i + 1).equals("/")) {
-                return new Deadline(command.substring(9, i), readDate(command.substring(i + 4)));
-            }
+        int slash = this.command.indexOf('/');
+        if (slash < 0) {
+            throw new EmptyException("Deadline");
         }
-        throw new EmptyException("Deadline");
+        return new Deadline(command.substring(9, slash), readDate(command.substring(slash + 4)));
     }
 
     /**
@@ -110,19 +132,17 @@ public class Parser {
      * @throws DateTimeParseException If the date format is incorrect.
      * @throws InvalidEventDateException If the event's start time is after the end time.
      */
-    private Event parseEvent() throws EmptyException, DateTimeParseException, InvalidEventDateException {
+    Event parseEvent() throws EmptyException, DateTimeParseException, InvalidEventDateException {
         if (this.command.length() < 7) {
             throw new EmptyException("Event");
         }
         int startIdx = 0;
         int endIdx = 0;
-        for (int i = 0; i < this.command.length(); i++) {
-            if (this.command.substring(i, i + 1).equals("/")) {
-                if (this.command.substring(i + 1, i + 2).equals("f")) {
-                    startIdx = i + 6;
-                } else {
-                    endIdx = i + 4;
-                }
+        for (int i = this.command.indexOf('/'); i >= 0; i = this.command.indexOf('/', i + 1)) {
+            if (this.command.startsWith("from", i + 1)) {
+                startIdx = i + 6;
+            } else {
+                endIdx = i + 4;
             }
         }
         if (startIdx == 0 | endIdx == 0) {
@@ -147,4 +167,104 @@ public class Parser {
     String wordToFind() {
         return this.command.substring(5);
     }
+
+    /**
+     * Extracts the search terms from a "search" command.
+     *
+     * @return The terms to search for.
+     */
+    String wordsToSearch() {
+        return this.command.substring(7);
+    }
+
+    /**
+     * Extracts the date range from a "due" or "overlaps" command,
+     * written as {@code <command> dd-MM-yyyy HHmm dd-MM-yyyy HHmm}.
+     *
+     * @return An array holding the start and the end of the range.
+     * @throws EmptyException If either date is missing.
+     * @throws DateTimeParseException If a date format is incorrect.
+     * @throws InvalidEventDateException If the start of the range is after the end.
+     */
+    LocalDateTime[] dateRange() throws EmptyException, DateTimeParseException, InvalidEventDateException {
+        String range = this.command.substring(this.command.indexOf(' ') + 1);
+        if (range.length() < 31) {
+            throw new EmptyException("Date range");
+        }
+        LocalDateTime from = readDate(range.substring(0, 15));
+        LocalDateTime to = readDate(range.substring(16));
+        if (from.isAfter(to)) {
+            throw new InvalidEventDateException();
+        }
+        return new LocalDateTime[] {from, to};
+    }
+
+    /**
+     * Extracts the page to show from a "list" command, written as {@code list [page] [--limit count]}.
+     * The page defaults to 1 and the number of tasks on each page to {@link #PAGE_SIZE}.
+     *
+     * @return An array holding the page number and the number of tasks on each page.
+     * @throws InvalidCommandException If the page or the limit is not a positive number.
+     */
+    int[] pageToList() throws InvalidCommandException {
+        String[] words = this.command.trim().split("\\s+");
+        int page = 1;
+        int limit = PAGE_SIZE;
+        try {
+            for (int i = 1; i < words.length; i++) {
+                if (words[i].equals("--limit") && i + 1 < words.length) {
+                    limit = Integer.parseInt(words[++i]);
+                } else if (i == 1) {
+                    page = Integer.parseInt(words[i]);
+                } else {
+                    throw new InvalidCommandException(this.command);
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidCommandException(this.command);
+        }
+        if (page < 1 || limit < 1) {
+            throw new InvalidCommandException(this.command);
+        }
+        return new int[] {page, limit};
+    }
+
+    /**
+     * Extracts the path of the file from a "run", "import" or "export" command.
+     *
+     * @param description What the file holds, used in the message if the path is missing.
+     * @return The path of the file.
+     * @throws EmptyException If the path is missing.
+     * @throws InvalidCommandException If the path is not a valid path.
+     */
+    Path pathToUse(String description) throws EmptyException, InvalidCommandException {
+        String path = this.command.substring(this.command.indexOf(' ') + 1).trim();
+        if (path.isEmpty()) {
+            throw new EmptyException(description);
+        }
+        try {
+            return Path.of(path);
+        } catch (InvalidPathException e) {
+            throw new InvalidCommandException(this.command);
+        }
+    }
+
+    /**
+     * Extracts the name of the workspace to open or switch to from the command.
+     * Names are made of lowercase letters, digits, "-" and "_", so every name is also part of a valid file name.
+     *
+     * @return The name of the workspace.
+     * @throws EmptyException If no name is given.
+     * @throws InvalidCommandException If the name has any other characters.
+     */
+    String workspaceToUse() throws EmptyException, InvalidCommandException {
+        String name = this.command.substring(this.command.indexOf(' ') + 1).trim();
+        if (name.isEmpty()) {
+            throw new EmptyException("Workspace");
+        }
+        if (!name.matches("[a-z0-9_-]+")) {
+            throw new InvalidCommandException(this.command);
+        }
+        return name;
+    }
 }
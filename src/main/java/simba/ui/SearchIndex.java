@@ -0,0 +1,168 @@
+package simba.ui;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An inverted index over the names of the tasks in a {@link TaskList}.
+ * It keeps two kinds of posting lists:
+ * <ul>
+ *     <li>Words, lower-cased, in a sorted map so that a prefix matches a contiguous range of words.</li>
+ *     <li>Every run of three consecutive characters (trigram), so that any substring of
+ *     at least three characters can be looked up without scanning every task.</li>
+ * </ul>
+ */
+class SearchIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final TreeMap<String, Set<Task>> words = new TreeMap<>();
+    private final HashMap<Long, Set<Task>> grams = new HashMap<>();
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task The task to add.
+     */
+    void add(Task task) {
+        String name = task.getName();
+        for (String word : tokenize(name)) {
+            this.words.computeIfAbsent(word, key -> new HashSet<>()).add(task);
+        }
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            this.grams.computeIfAbsent(gramAt(name, i), key -> new HashSet<>()).add(task);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The task to remove.
+     */
+    void remove(Task task) {
+        String name = task.getName();
+        for (String word : tokenize(name)) {
+            removePosting(this.words, word, task);
+        }
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            removePosting(this.grams, gramAt(name, i), task);
+        }
+    }
+
+    /**
+     * Finds the tasks whose names contain the specified text.
+     * Only texts of at least {@link #GRAM_LENGTH} characters can be looked up.
+     *
+     * @param text The text to search for.
+     * @return The tasks whose names contain the text.
+     */
+    Collection<Task> containing(String text) {
+        assert text.length() >= GRAM_LENGTH : "Text should be long enough to be split into trigrams";
+        ArrayList<Set<Task>> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            Set<Task> posting = this.grams.get(gramAt(text, i));
+            if (posting == null) {
+                return new ArrayList<>();
+            }
+            postings.add(posting);
+        }
+        ArrayList<Task> result = new ArrayList<>();
+        for (Task task : intersect(postings)) {
+            if (task.getName().contains(text)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the tasks whose names contain every term of the query as a word.
+     * A term ending in {@code *} matches any word starting with the rest of the term.
+     * Terms are matched regardless of case.
+     *
+     * @param query The terms to search for, separated by spaces.
+     * @return The tasks whose names match every term.
+     */
+    Collection<Task> matchingAll(String query) {
+        ArrayList<Set<Task>> postings = new ArrayList<>();
+        for (String term : query.toLowerCase().split("\\s+")) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            Set<Task> posting;
+            if (term.endsWith("*")) {
+                String prefix = term.substring(0, term.length() - 1);
+                posting = new HashSet<>();
+                for (Set<Task> matches : this.words.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+                    posting.addAll(matches);
+                }
+            } else {
+                posting = this.words.get(term);
+            }
+            if (posting == null || posting.isEmpty()) {
+                return new ArrayList<>();
+            }
+            postings.add(posting);
+        }
+        if (postings.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return intersect(postings);
+    }
+
+    private static Collection<Task> intersect(ArrayList<Set<Task>> postings) {
+        Set<Task> smallest = postings.get(0);
+        for (Set<Task> posting : postings) {
+            if (posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        ArrayList<Task> result = new ArrayList<>();
+        for (Task task : smallest) {
+            boolean isInAll = true;
+            for (Set<Task> posting : postings) {
+                if (!posting.contains(task)) {
+                    isInAll = false;
+                    break;
+                }
+            }
+            if (isInAll) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    private static <K> void removePosting(Map<K, Set<Task>> postings, K key, Task task) {
+        Set<Task> posting = postings.get(key);
+        if (posting != null) {
+            posting.remove(task);
+            if (posting.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static HashSet<String> tokenize(String name) {
+        HashSet<String> tokens = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= name.length(); i++) {
+            boolean isWordChar = i < name.length() && Character.isLetterOrDigit(name.charAt(i));
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                tokens.add(name.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static long gramAt(String text, int idx) {
+        return ((long) text.charAt(idx) << 32) | ((long) text.charAt(idx + 1) << 16) | text.charAt(idx + 2);
+    }
+}
@@ -1,5 +1,8 @@
 package simba.ui;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * The main class for the Simba task management application.
  * Simba manages tasks, allows users to add, view, and delete tasks, and saves them to a file.
@@ -9,27 +12,54 @@ package simba.ui;
  * <ul>
  *     <li>{@link Storage} - for saving and loading tasks from a file.</li>
  *     <li>{@link TaskList} - for managing the list of tasks.</li>
+ *     <li>{@link Workspaces} - for keeping several lists of tasks and switching between them.</li>
  *     <li>{@link Ui} - for interacting with the user and processing commands.</li>
  * </ul>
  * </p>
  * <p>For example, running the application will display a welcome message
  * and prompt the user to input commands. Commands
  * such as "todo" or "deadline" will be processed and corresponding tasks will be added to the task list.</p>
+ * <p>How changes are written is chosen with the {@code simba.storage} system property:
+ * {@code journal} (the default) journals every change, {@code sync} rewrites the tasks after every change,
+ * and {@code deferred} writes them in the background at most {@code simba.flush.ms} milliseconds
+ * (1000 by default) or {@code simba.flush.mutations} changes (100 by default) after they are made.
+ * Every workspace is kept in its own file, and at most {@code simba.workspaces.loaded} of them (4 by default)
+ * are kept in memory.</p>
  */
 public class Simba {
     private static final String FILE_PATH = "simba.txt";
+    private static final long FLUSH_MILLIS = Math.max(0, Long.getLong("simba.flush.ms", 1000));
+    private static final int FLUSH_MUTATIONS = Math.max(1, Integer.getInteger("simba.flush.mutations", 100));
+
+    private static final int LOADED_WORKSPACES = Math.max(1, Integer.getInteger("simba.workspaces.loaded", 4));
 
-    private final Storage storage;
-    private final TaskList tasks;
+    private final Workspaces workspaces;
     private final Ui ui;
 
     /**
      * Initializes a new Simba instance.
+     * Only the default workspace is loaded, and only once the first command needs it.
      */
     public Simba() {
-        this.storage = new Storage(FILE_PATH);
-        this.tasks = new TaskList(this.storage);
-        this.ui = new Ui(this.storage, this.tasks);
+        this.workspaces = new Workspaces(Path.of(FILE_PATH), Simba::newStorage, LOADED_WORKSPACES);
+        this.ui = new Ui(this.workspaces);
+    }
+
+    /**
+     * Creates the storage of a workspace in the mode chosen with the {@code simba.storage} system property.
+     *
+     * @param filePath The path of the file of the workspace.
+     * @return The storage.
+     */
+    private static Storage newStorage(String filePath) {
+        switch (System.getProperty("simba.storage", "journal")) {
+        case "deferred":
+            return new Storage(filePath, FLUSH_MILLIS, FLUSH_MUTATIONS);
+        case "sync":
+            return new Storage(filePath, false);
+        default:
+            return new Storage(filePath);
+        }
     }
 
     /**
@@ -45,4 +75,34 @@ public class Simba {
     public String getResponse(String input) {
         return ui.readCommand(input);
     }
+
+    /**
+     * Loads the tasks of the current workspace ahead of the first command, eg. in the background while
+     * the window is shown. Commands load them anyway if this has not been called.
+     *
+     * @return A message with the number of tasks loaded and how long it took, or why they could not be loaded.
+     */
+    public String load() {
+        long start = System.nanoTime();
+        try {
+            int count = this.workspaces.tasks().getList().size();
+            String warning = this.workspaces.storage().takeRecoveryWarning();
+            return "Loaded " + count + " task(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms"
+                    + (warning.isEmpty() ? "" : "\n" + warning);
+        } catch (IOException e) {
+            return "Something went wrong with the file: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Writes any changes that are still deferred in every loaded workspace and closes their storage,
+     * so nothing is lost when the application exits.
+     */
+    public void shutdown() {
+        try {
+            this.workspaces.close();
+        } catch (IOException e) {
+            System.err.println("Could not save tasks: " + e.getMessage());
+        }
+    }
 }
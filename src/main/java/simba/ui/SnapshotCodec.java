@@ -0,0 +1,161 @@
+package simba.ui;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.zip.CRC32C;
+
+/**
+ * Encodes and decodes the binary snapshot format of a task list.
+ * The snapshot is laid out column by column, as a {@link TaskStore} is, so that loading it is a handful of
+ * sequential scans:
+ *
+ * <pre>
+ *     int     magic ("SMBA")
+ *     int     version
+ *     int     count
+ *     int     nextId              the id given to the next task added
+ *     byte    type[count]         'T', 'D' or 'E'
+ *     byte    done[count]         1 if the task is done, 0 otherwise
+ *     int     id[count]           the id of the task
+ *     long    start[count]        minutes since the epoch, 0 for a ToDo
+ *     long    end[count]          minutes since the epoch, 0 unless the task is an Event
+ *     int     nameLength[count]   length of the UTF-8 encoded name in bytes
+ *     byte    names[]             the UTF-8 encoded names, back to back
+ *     int     checksum            CRC32C of every byte before it
+ * </pre>
+ *
+ * <p>A snapshot that was only partly written, or damaged since, fails its checksum and is rejected as a whole
+ * instead of being decoded into wrong tasks. Snapshots of version 1 have no checksum, and snapshots of versions 1
+ * and 2 have no ids, which are given to their tasks in order when they are read.</p>
+ */
+class SnapshotCodec {
+    static final int MAGIC = 0x534D4241;
+    static final int VERSION = 3;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int OLD_HEADER_SIZE = 12;
+    private static final int CHECKSUM_SIZE = 4;
+
+    /**
+     * Encodes a store of tasks into a snapshot, copying it column by column.
+     *
+     * @param store The tasks to encode.
+     * @return A buffer holding the snapshot, positioned at its start.
+     */
+    static ByteBuffer encode(TaskStore store) {
+        int count = store.size();
+        int namesSize = 0;
+        for (int i = 0; i < count; i++) {
+            namesSize += store.nameLengthAt(i);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + count * (1 + 1 + 4 + 8 + 8 + 4) + namesSize
+                + CHECKSUM_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(store.nextId());
+        for (int i = 0; i < count; i++) {
+            buffer.put(store.typeAt(i));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.put(store.isDone(i) ? (byte) 1 : (byte) 0);
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(store.idAt(i));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(store.startAt(i));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(store.endAt(i));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(store.nameLengthAt(i));
+        }
+        for (int i = 0; i < count; i++) {
+            store.copyNameTo(i, buffer);
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) checksum.getValue());
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a snapshot into a store of tasks, without creating an object per task.
+     *
+     * @param buffer A buffer positioned at the start of the snapshot.
+     * @return The tasks in the order they were encoded.
+     * @throws IOException If the buffer does not hold a complete and intact snapshot of a supported version.
+     */
+    static TaskStore decode(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        int end = buffer.limit();
+        if (buffer.remaining() < OLD_HEADER_SIZE || buffer.getInt(start) != MAGIC) {
+            throw new IOException("Not a task snapshot");
+        }
+        int version = buffer.getInt(start + 4);
+        if (version == VERSION || version == 2) {
+            end -= CHECKSUM_SIZE;
+            if (end < start + OLD_HEADER_SIZE || buffer.getInt(end) != checksumOf(buffer, start, end)) {
+                throw new IOException("Snapshot fails its checksum");
+            }
+        } else if (version != 1) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        boolean hasIds = version == VERSION;
+        int count = buffer.getInt(start + 8);
+        int typesAt = start + (hasIds ? HEADER_SIZE : OLD_HEADER_SIZE);
+        int idSize = hasIds ? 4 : 0;
+        if (count < 0 || typesAt > end || (long) count * (1 + 1 + idSize + 8 + 8 + 4) > end - typesAt) {
+            throw new IOException("Truncated snapshot");
+        }
+        int nextId = hasIds ? buffer.getInt(start + 12) : count + 1;
+        int doneAt = typesAt + count;
+        int idsAt = doneAt + count;
+        int startsAt = idsAt + count * idSize;
+        int endsAt = startsAt + count * 8;
+        int lengthsAt = endsAt + count * 8;
+        int namesAt = lengthsAt + count * 4;
+
+        byte[] types = new byte[count];
+        buffer.get(typesAt, types);
+        BitSet done = new BitSet(count);
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        int[] ids = new int[count];
+        int[] nameLengths = new int[count];
+        long namesSize = 0;
+        for (int i = 0; i < count; i++) {
+            byte type = types[i];
+            if (type != 'T' && type != 'D' && type != 'E') {
+                throw new IOException("Unknown task type in snapshot");
+            }
+            if (buffer.get(doneAt + i) == 1) {
+                done.set(i);
+            }
+            ids[i] = hasIds ? buffer.getInt(idsAt + i * 4) : i + 1;
+            if (ids[i] < 1 || ids[i] >= nextId) {
+                throw new IOException("Task id out of range in snapshot");
+            }
+            starts[i] = buffer.getLong(startsAt + i * 8);
+            ends[i] = buffer.getLong(endsAt + i * 8);
+            nameLengths[i] = buffer.getInt(lengthsAt + i * 4);
+            if (nameLengths[i] < 0) {
+                throw new IOException("Truncated snapshot");
+            }
+            namesSize += nameLengths[i];
+        }
+        if (namesSize > end - namesAt) {
+            throw new IOException("Truncated snapshot");
+        }
+        byte[] names = new byte[(int) namesSize];
+        buffer.get(namesAt, names);
+        return new TaskStore(count, types, done, starts, ends, ids, nextId, nameLengths, names);
+    }
+
+    private static int checksumOf(ByteBuffer buffer, int from, int to) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.duplicate().limit(to).position(from));
+        return (int) checksum.getValue();
+    }
+}
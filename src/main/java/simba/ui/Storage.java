@@ -1,13 +1,23 @@
 package simba.ui;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages task storage, including reading from and writing to a file.
@@ -18,149 +28,520 @@ import java.util.Scanner;
  * <ul>
  *     <li>Reading task data from a specified file path.</li>
  *     <li>Writing task data (e.g., task list) to a specified file.</li>
+ *     <li>Recording each change to the task list in an append-only {@link Journal}.</li>
+ *     <li>Exporting the task list in its human-readable text form.</li>
  * </ul>
  * </p>
  *
- * <p>For example, a task list can be printed to the console or saved to the file
- * by using the methods in this class.</p>
+ * <p>Tasks are kept in a binary snapshot next to the storage path (see {@link SnapshotCodec}).
+ * In journaled mode every change made since the snapshot is appended to a journal next to it.
+ * Once the journal grows past {@link #COMPACTION_THRESHOLD} bytes, it is folded into a new snapshot
+ * on a background thread. Loading reads the snapshot in a single pass and replays the journal over it.</p>
+ *
+ * <p>A snapshot is never overwritten in place. It is written to a temporary file and forced to disk,
+ * the previous snapshot is kept as a backup, and the new one is then renamed into place.
+ * If the snapshot is missing or fails its checksum on load, eg. after a crash between the two renames
+ * or a damaged disk, the backup is loaded instead, so recovery reads at most two snapshots
+ * and a journal bounded by {@link #COMPACTION_THRESHOLD}.</p>
+ *
+ * <p>In deferred mode nothing is written as changes are made. Instead a {@link Flusher} rewrites the snapshot
+ * in the background once the changes are a flush interval old or numerous enough, and on {@link #flush()},
+ * which is also called when the JVM shuts down. This trades a bounded window of lost changes for far fewer
+ * writes to disk when commands come in bursts.</p>
+ *
+ * <p>Between {@link #beginBatch()} and {@link #endBatch(TaskStore)} changes are only buffered,
+ * and are written with a single flush when the batch ends.</p>
+ *
+ * <p>A compaction or deferred write encodes a snapshot of the task list (see {@link TaskStore#snapshot()})
+ * on a background thread, so it does not hold up further changes.</p>
+ *
+ * <p>The text file at the storage path itself is only read to migrate a task list saved by an
+ * older version, and is otherwise written only on export.</p>
  */
 public class Storage {
+    private static final long COMPACTION_THRESHOLD = 1 << 20;
+
     private final String filePath;
     private final File file;
+    private final boolean isJournaled;
+    private final Path snapshotPath;
+    private final Path backupPath;
+    private final Path journalPath;
+    private final Path foldingJournalPath;
+    private Journal journal;
+    private ExecutorService compactor;
+    private volatile boolean isCompacting;
+    private int batchDepth;
+    private boolean isRewrittenInBatch;
+    private String recoveryWarning = "";
+    private final Flusher flusher;
+    private final Thread shutdownHook;
 
     /**
-     * Initializes a new Storage instance with the specified file path.
+     * Initializes a new journaled Storage instance with the specified file path.
      *
      * @param filePath The path to the file where tasks are stored.
      */
     Storage(String filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * Initializes a new Storage instance with the specified file path.
+     *
+     * @param filePath    The path to the file where tasks are stored.
+     * @param isJournaled Whether changes are appended to a journal instead of rewriting the whole file.
+     */
+    Storage(String filePath, boolean isJournaled) {
         this.filePath = filePath;
         this.file = new File(filePath);
+        this.isJournaled = isJournaled;
+        this.snapshotPath = Path.of(filePath + ".bin");
+        this.backupPath = Path.of(filePath + ".bin.bak");
+        this.journalPath = Path.of(filePath + ".journal");
+        this.foldingJournalPath = Path.of(filePath + ".journal.old");
+        this.flusher = null;
+        this.shutdownHook = null;
     }
 
     /**
-     * Prints the contents of the file to the console.
+     * Initializes a new Storage instance in deferred mode with the specified file path.
+     * Changes are written in the background at most the specified interval after they are made,
+     * or as soon as the specified number of them are unwritten.
      *
-     * @throws FileNotFoundException If the file does not exist.
+     * @param filePath       The path to the file where tasks are stored.
+     * @param flushMillis    The longest a change is left unwritten, in milliseconds.
+     * @param flushMutations The number of unwritten changes after which they are written at once.
      */
-    String fileToString() throws IOException {
-        try {
-            Scanner sc = new Scanner(this.file);
-            String result = "";
-            if (!sc.hasNext()) {
-                result = "Task list is empty";
-            }
-            while (sc.hasNext()) {
-                result += sc.nextLine() + "\n";
+    Storage(String filePath, long flushMillis, int flushMutations) {
+        this.filePath = filePath;
+        this.file = new File(filePath);
+        this.isJournaled = false;
+        this.snapshotPath = Path.of(filePath + ".bin");
+        this.backupPath = Path.of(filePath + ".bin.bak");
+        this.journalPath = Path.of(filePath + ".journal");
+        this.foldingJournalPath = Path.of(filePath + ".journal.old");
+        this.flusher = new Flusher(flushMillis, flushMutations, this::writeSnapshot);
+        this.shutdownHook = new Thread(() -> {
+            try {
+                this.flush();
+            } catch (IOException e) {
+                // Nothing more can be done while the JVM is shutting down.
             }
-            sc.close();
-            return result;
-        } catch (FileNotFoundException e) {
-            this.writeToFile(this.readFile());
-            return this.fileToString();
+        }, "simba-shutdown-flush");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /**
+     * Records a change that is about to be made to the task list.
+     * In journaled mode the change is appended to the journal before it is applied,
+     * otherwise nothing is written until {@link #commit(TaskStore)}.
+     *
+     * @param op   The kind of change, one of the {@link Journal} record types.
+     * @param task The task being changed.
+     * @throws IOException If the change cannot be written to the journal.
+     */
+    void record(char op, Task task) throws IOException {
+        if (!this.isJournaled) {
+            return;
+        }
+        if (this.journal == null) {
+            this.journal = new Journal(this.journalPath);
+        }
+        if (this.batchDepth > 0) {
+            this.journal.buffer(op, task);
+        } else {
+            this.journal.append(op, task);
         }
     }
 
     /**
-     * Writes the list of tasks to the file.
+     * Persists the task list after a change has been applied to it.
+     * In journaled mode this only starts a compaction when the journal is large enough,
+     * in deferred mode it only marks the list dirty, and otherwise the whole list is written to the snapshot.
      *
-     * @param list The list of tasks to write to the file.
+     * @param list The task list after the change.
      * @throws IOException If an I/O error occurs while writing to the file.
      */
-    void writeToFile(ArrayList<Task> list) throws IOException {
-        FileWriter fw = new FileWriter(this.filePath);
-        for (int i = 0; i < list.size(); i++) {
-            int idx = i + 1;
-            fw.write(idx + ". " + list.get(i) + "\n");
+    void commit(TaskStore list) throws IOException {
+        if (this.batchDepth > 0) {
+            return;
         }
-        fw.close();
+        if (this.flusher != null) {
+            this.flusher.markDirty(list);
+            return;
+        }
+        if (!this.isJournaled) {
+            this.writeToFile(list);
+            return;
+        }
+        if (this.journal.size() >= COMPACTION_THRESHOLD && !this.isCompacting
+                && !Files.exists(this.foldingJournalPath)) {
+            this.compact(list);
+        }
+    }
+
+    /**
+     * Starts a batch of changes, which are not written until {@link #endBatch(TaskStore)}.
+     * Batches can be nested, eg. a bulk command run from a script, and only the outermost one writes.
+     */
+    void beginBatch() {
+        this.batchDepth++;
     }
 
-    ArrayList<Task> readFile() {
+    /**
+     * Ends a batch of changes, writing every change made during it with a single flush
+     * unless it is nested in another batch.
+     *
+     * @param list The task list after the batch.
+     * @throws IOException If the changes cannot be written.
+     */
+    void endBatch(TaskStore list) throws IOException {
+        assert this.batchDepth > 0 : "A batch should only be ended after it is started";
+        if (--this.batchDepth > 0) {
+            return;
+        }
+        this.isRewrittenInBatch = false;
+        if (this.flusher != null) {
+            this.flusher.markDirty(list);
+        } else if (!this.isJournaled) {
+            this.writeToFile(list);
+        } else if (this.journal != null) {
+            this.journal.flush();
+            this.commit(list);
+        }
+    }
+
+    /**
+     * Ends a batch of changes that was rolled back, dropping the changes buffered during it instead of writing them.
+     * If the whole list was rewritten during the batch, eg. by an import, it is rewritten again as it is now.
+     *
+     * @param list The task list after it was rolled back.
+     * @throws IOException If the list cannot be rewritten.
+     */
+    void discardBatch(TaskStore list) throws IOException {
+        assert this.batchDepth > 0 : "A batch should only be discarded after it is started";
+        if (--this.batchDepth > 0) {
+            return;
+        }
+        if (this.journal != null) {
+            this.journal.discard();
+        }
+        if (this.isRewrittenInBatch) {
+            this.isRewrittenInBatch = false;
+            this.rewrite(list);
+        }
+    }
+
+    /**
+     * Writes any changes that are still deferred now, eg. before the application exits.
+     * Outside deferred mode every change is already written when it is made, so this does nothing.
+     *
+     * @throws IOException If the changes cannot be written.
+     */
+    void flush() throws IOException {
+        if (this.flusher != null) {
+            this.flusher.flush();
+        }
+    }
+
+    /**
+     * Writes any deferred changes and releases the journal and background threads of the storage,
+     * eg. when its task list is evicted from memory. The storage should not be used afterwards.
+     *
+     * @throws IOException If the changes cannot be written or the journal cannot be closed.
+     */
+    void close() throws IOException {
         try {
-            Scanner sc = new Scanner(this.file);
-            ArrayList<Task> list = new ArrayList<Task>();
-            while (sc.hasNext()) {
-                String currentLine = sc.nextLine();
-                if (currentLine.charAt(4) == 'T') {
-                    list.add(this.todoToAdd(currentLine));
-                } else if (currentLine.charAt(4) == 'D') {
-                    list.add(this.deadlineToAdd(currentLine));
-                } else {
-                    list.add(this.eventToAdd(currentLine));
+            if (this.flusher != null) {
+                this.flusher.close();
+                try {
+                    Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+                } catch (IllegalStateException e) {
+                    // The JVM is already shutting down, and the hook only flushes what was just written.
                 }
             }
-            return list;
-        } catch (FileNotFoundException e) {
-            return new ArrayList<Task>();
+            if (this.compactor != null) {
+                this.compactor.shutdown();
+                this.compactor.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (this.journal != null) {
+                this.journal.close();
+            }
         }
     }
 
-    private ToDo todoToAdd(String line) {
-        boolean isDone = false;
-        if (line.charAt(8) == 'X') {
-            isDone = true;
+    /**
+     * Returns the counters of changes and writes made so far in deferred mode.
+     *
+     * @return The counters, or how changes are written outside deferred mode.
+     */
+    String statsAsString() {
+        if (this.flusher != null) {
+            return this.flusher.statsAsString();
         }
-        ToDo todo = new ToDo(line.substring(11));
-        if (isDone) {
-            todo.makeDone();
+        return this.isJournaled
+                ? "Every change is journaled and forced to disk before it is made"
+                : "Every change is written to disk as it is made";
+    }
+
+    /**
+     * Returns the warning to show the user if the tasks were last read from the backup snapshot,
+     * and forgets it so it is only shown once.
+     *
+     * @return The warning, or an empty string if the snapshot was read intact.
+     */
+    String takeRecoveryWarning() {
+        String warning = this.recoveryWarning;
+        this.recoveryWarning = "";
+        return warning;
+    }
+
+    /**
+     * Writes the list of tasks to the snapshot.
+     *
+     * @param list The list of tasks to write to the snapshot.
+     * @throws IOException If an I/O error occurs while writing to the snapshot.
+     */
+    void writeToFile(TaskStore list) throws IOException {
+        this.writeSnapshot(SnapshotCodec.encode(list));
+    }
+
+    /**
+     * Exports the list of tasks to a text file, one task per line in the form shown by the list command.
+     * The file is written to a temporary file first and renamed over the target once complete,
+     * so an existing file is never left half-written.
+     *
+     * @param list The list of tasks to export.
+     * @param target The path of the text file.
+     * @throws IOException If an I/O error occurs while writing to the file.
+     */
+    void exportToText(List<Task> list, Path target) throws IOException {
+        Path temp = Path.of(target + ".tmp");
+        try (FileChannel channel = openTemp(temp);
+                BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8))) {
+            for (int i = 0; i < list.size(); i++) {
+                int idx = i + 1;
+                writer.append(Integer.toString(idx)).append(". ").append(list.get(i).toString()).append('\n');
+            }
+            writer.flush();
+            channel.force(true);
         }
-        return todo;
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
-    private Deadline deadlineToAdd(String line) {
-        boolean isDone = false;
-        if (line.charAt(8) == 'X') {
-            isDone = true;
+    /**
+     * Replaces everything persisted with the specified list of tasks, eg. after a bulk import.
+     * The list is written to a new snapshot and the journals are cleared, including one left by a compaction
+     * that did not finish, so the change costs a single write instead of a journal record per task.
+     * In deferred mode the list is written through the {@link Flusher} instead, on its background thread
+     * as soon as possible, so it cannot race with a background write of an older list.
+     *
+     * @param list The task list to persist.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    void rewrite(TaskStore list) throws IOException {
+        if (this.batchDepth > 0) {
+            this.isRewrittenInBatch = true;
         }
-        int idx = 0;
-        for (int i = 5; i < line.length(); i++) {
-            if (line.substring(i - 5, i).equals("(by: ")) {
-                idx = i;
-                break;
+        if (this.flusher != null) {
+            this.flusher.markDirty(list);
+            this.flusher.flushSoon();
+            return;
+        }
+        ByteBuffer snapshot = SnapshotCodec.encode(list);
+        if (this.compactor != null) {
+            try {
+                this.compactor.submit(() -> {
+                    this.writeSnapshot(snapshot);
+                    return null;
+                }).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while writing the snapshot", e);
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
             }
+        } else {
+            this.writeSnapshot(snapshot);
         }
-        String deadlineName = line.substring(11, idx - 6);
-        LocalDateTime startDate = readDateInFile(line.substring(idx, line.length() - 1));
-        Deadline deadline = new Deadline(deadlineName, startDate);
-        if (isDone) {
-            deadline.makeDone();
+        if (this.journal != null) {
+            this.journal.clear();
         }
-        return deadline;
+        Files.deleteIfExists(this.foldingJournalPath);
     }
 
-    private Event eventToAdd(String line) {
-        boolean isDone = false;
-        if (line.charAt(8) == 'X') {
-            isDone = true;
+    /**
+     * Reads the list of tasks from the snapshot, replaying any journaled changes made since it was written.
+     * If the snapshot is missing or damaged, the backup of the previous snapshot is read instead,
+     * and a damaged snapshot is set aside next to it with the suffix {@code .corrupt}.
+     * Changes folded into the lost snapshot since the backup cannot be recovered,
+     * so the user is warned through {@link #takeRecoveryWarning()}.
+     * If there were journaled changes, the backup was read, or the tasks were migrated from the text file,
+     * they are folded into a new snapshot before returning.
+     *
+     * @return The list of tasks, sorted by {@link TaskComparator}.
+     * @throws IOException If the text file or a journal cannot be read.
+     */
+    TaskStore readFile() throws IOException {
+        boolean isStale = false;
+        TaskStore list = this.readSnapshot(this.snapshotPath);
+        if (list == null) {
+            list = this.readSnapshot(this.backupPath);
+            isStale = list != null;
         }
-        int startIdx = 0;
-        int endIdx = 0;
-        for (int i = 7; i < line.length(); i++) {
-            if (line.substring(i - 7, i).equals("(from: ")) {
-                startIdx = i;
-                break;
+        if (isStale) {
+            this.recoveryWarning = "The saved tasks were damaged, so the previous save was loaded instead.\n"
+                    + "Changes made shortly before the last save may have been lost.";
+            if (Files.exists(this.snapshotPath)) {
+                Files.move(this.snapshotPath, Path.of(this.filePath + ".bin.corrupt"),
+                        StandardCopyOption.REPLACE_EXISTING);
             }
         }
-        for (int i = line.length() - 1; i >= 4; i--) {
-            if (line.substring(i - 4, i).equals("to: ")) {
-                endIdx = i;
+        if (list == null) {
+            list = this.readTextFile();
+            isStale = this.file.exists();
+        }
+        if (Files.exists(this.foldingJournalPath) || Files.exists(this.journalPath)) {
+            LinkedHashMap<Task, Task> tasks = new LinkedHashMap<>();
+            for (Task task : list) {
+                tasks.put(task, task);
+            }
+            int nextId = this.replay(this.foldingJournalPath, tasks, list.nextId());
+            nextId = this.replay(this.journalPath, tasks, nextId);
+            ArrayList<Task> replayed = new ArrayList<>(tasks.values());
+            for (Task task : replayed) {
+                if (task.getId() == 0) {
+                    task.setId(nextId++);
+                }
+            }
+            replayed.sort(new TaskComparator());
+            list = TaskStore.of(replayed);
+            list.reserveIdsBelow(nextId);
+            isStale = true;
+        }
+
+        try {
+            if (isStale) {
+                this.writeToFile(list);
+            }
+            Files.deleteIfExists(this.foldingJournalPath);
+            Files.deleteIfExists(this.journalPath);
+        } catch (IOException e) {
+            // The journals are left in place and replayed again on the next load.
+        }
+        return list;
+    }
+
+    private TaskStore readSnapshot(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Read onto the heap rather than mapped, as a mapping outlives the channel until it is collected,
+            // and on Windows the snapshot cannot be moved aside while it is mapped.
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the whole snapshot is in the buffer.
+            }
+            return SnapshotCodec.decode(buffer.flip());
+        } catch (IOException e) {
+            // A missing, partly written or damaged snapshot is treated as absent.
+            return null;
+        }
+    }
+
+    private TaskStore readTextFile() throws IOException {
+        if (!this.file.exists()) {
+            return new TaskStore();
+        }
+        return TaskStore.of(TaskFileParser.parseFile(this.file.toPath()).getTasks());
+    }
+
+    private int replay(Path journalFile, LinkedHashMap<Task, Task> tasks, int nextId) throws IOException {
+        for (String record : Journal.readRecords(journalFile)) {
+            Task task = TaskFileParser.parseLine(record, 2, record.length());
+            Task existing = tasks.get(task);
+            switch (record.charAt(0)) {
+            case Journal.ADD:
+                int number = record.indexOf(". ", 2);
+                if (number > 2 && Character.isDigit(record.charAt(2))) {
+                    task.setId(Integer.parseInt(record, 2, number, 10));
+                    nextId = Math.max(nextId, task.getId() + 1);
+                }
+                if (existing == null) {
+                    tasks.put(task, task);
+                }
+                break;
+            case Journal.MARK:
+                if (existing != null) {
+                    tasks.put(existing, existing.withDone(true));
+                }
+                break;
+            case Journal.UNMARK:
+                if (existing != null) {
+                    tasks.put(existing, existing.withDone(false));
+                }
+                break;
+            case Journal.DELETE:
+                tasks.remove(task);
+                break;
+            default:
                 break;
             }
         }
-        String eventName = line.substring(11, startIdx - 8);
-        LocalDateTime startDate = readDateInFile(line.substring(startIdx, endIdx - 5));
-        LocalDateTime endDate = readDateInFile(line.substring(endIdx, line.length() - 1));
-        Event event = new Event(eventName, startDate, endDate);
-        if (isDone) {
-            event.makeDone();
+        return nextId;
+    }
+
+    private void compact(TaskStore list) throws IOException {
+        TaskStore snapshot = list.snapshot();
+        this.journal.rotateTo(this.foldingJournalPath);
+        this.isCompacting = true;
+        this.compactor().execute(() -> {
+            try {
+                this.writeSnapshot(SnapshotCodec.encode(snapshot));
+                Files.delete(this.foldingJournalPath);
+            } catch (IOException e) {
+                // The folding journal is kept and replayed on the next load.
+            } finally {
+                this.isCompacting = false;
+            }
+        });
+    }
+
+    private ExecutorService compactor() {
+        if (this.compactor == null) {
+            this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "simba-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
-        return event;
+        return this.compactor;
     }
 
-    private LocalDateTime readDateInFile(String dateString) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
-        return LocalDateTime.parse(dateString, formatter);
+    private void writeSnapshot(ByteBuffer snapshot) throws IOException {
+        Path temp = Path.of(this.snapshotPath + ".tmp");
+        try (FileChannel channel = openTemp(temp)) {
+            ByteBuffer buffer = snapshot.duplicate();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        if (Files.exists(this.snapshotPath)) {
+            Files.move(this.snapshotPath, this.backupPath,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(temp, this.snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
+    private static FileChannel openTemp(Path temp) throws IOException {
+        return FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
 }
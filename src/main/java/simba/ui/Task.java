@@ -1,7 +1,6 @@
 package simba.ui;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Represents a general task with a name and completion status.
@@ -16,9 +15,10 @@ import java.time.format.DateTimeFormatter;
  *     task.makeDone(); // Marks the task as done
  * </pre>
  */
-public abstract class Task {
+public abstract class Task implements Cloneable {
     private boolean isDone;
     private final String taskName;
+    private int id;
 
     /**
      * Constructs a new Task with the specified name.
@@ -32,6 +32,8 @@ public abstract class Task {
 
     /**
      * Marks the task as completed.
+     * This changes the task in place, so it is only used on a task that is still being built, eg. while parsing it.
+     * A task that may be shared, eg. with the undo history, is marked with {@link #withDone(boolean)} instead.
      */
     void makeDone() {
         this.isDone = true;
@@ -44,6 +46,55 @@ public abstract class Task {
         this.isDone = false;
     }
 
+    /**
+     * Returns the task with the specified completion status, leaving this task unchanged.
+     * The task is only copied if its status changes, so tasks can be shared freely as long as
+     * they are only marked and unmarked through this method.
+     *
+     * @param isDone Whether the task returned is completed.
+     * @return This task if it already has the status, otherwise a copy of it with the status.
+     */
+    Task withDone(boolean isDone) {
+        if (this.isDone == isDone) {
+            return this;
+        }
+        try {
+            Task copy = (Task) this.clone();
+            copy.isDone = isDone;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("A task should always be cloneable", e);
+        }
+    }
+
+    /**
+     * Returns whether the task is completed.
+     *
+     * @return {@code true} if the task is done, {@code false} otherwise.
+     */
+    boolean isDone() {
+        return this.isDone;
+    }
+
+    /**
+     * Returns the id of the task, which stays the same for as long as the task is in its list,
+     * however the tasks around it change.
+     *
+     * @return The id of the task, or 0 if it has not been added to a list yet.
+     */
+    int getId() {
+        return this.id;
+    }
+
+    /**
+     * Sets the id of the task, as given by the list it is added to.
+     *
+     * @param id The id of the task.
+     */
+    void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Retrieves the name of the task.
      *
@@ -60,6 +111,14 @@ public abstract class Task {
      */
     abstract String getType();
 
+    /**
+     * Returns the position of the task's type in the order tasks are listed,
+     * which is the alphabetical order of {@link #getType()}.
+     *
+     * @return 0 for a Deadline, 1 for an Event and 2 for a ToDo.
+     */
+    abstract int getTypeOrder();
+
     /**
      * Returns the date associated with the task.
      *
@@ -77,13 +136,21 @@ public abstract class Task {
 
     /**
      * Compares this task with another object for equality.
-     * The comparison is based on task name and date.
+     * The comparison is based on task name and date, and not on the id of the task.
      *
      * @param obj The object to compare with.
      * @return {@code true} if the tasks are equal, {@code false} otherwise.
      */
     public abstract boolean equals(Object obj);
 
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     * The completion status is not part of the hash, so it stays the same when the task is marked or unmarked.
+     *
+     * @return The hash code of the task.
+     */
+    public abstract int hashCode();
+
     /**
      * Formats a {@code LocalDateTime} object into a string.
      * The formatted string follows the pattern "dd MMM yyyy HH:mm".
@@ -92,8 +159,7 @@ public abstract class Task {
      * @return A string representing the formatted date.
      */
     protected String stringDate(LocalDateTime date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm");
-        return date.format(formatter);
+        return DateCodec.format(date);
     }
 
     /**
@@ -29,22 +29,21 @@ public class TaskComparator implements Comparator<Task> {
      *         as the first task is less than, equal to, or greater than the second task.
      */
     public int compare(Task task1, Task task2) {
-        if (compareType(task1, task2) != 0) {
-            return compareType(task1, task2);
-        }
-        if (task1.getDate() != null) {
-            if (compareDate(task1, task2) != 0) {
-                return compareDate(task1, task2);
-            }
-            if (task1.getEndDate() != null) {
-                return compareEndDate(task1, task2);
+        int result = compareType(task1, task2);
+        if (result == 0 && task1.getDate() != null) {
+            result = compareDate(task1, task2);
+            if (result == 0 && task1.getEndDate() != null) {
+                result = compareEndDate(task1, task2);
             }
         }
-        return compareName(task1, task2);
+        if (result == 0) {
+            result = compareName(task1, task2);
+        }
+        return result;
     }
 
     /**
-     * Compares the type of two tasks.
+     * Compares the type of two tasks by their precomputed position in the listing order.
      *
      * @param task1 The first task to compare.
      * @param task2 The second task to compare.
@@ -52,7 +51,7 @@ public class TaskComparator implements Comparator<Task> {
      *         as the type of the first task is less than, equal to, or greater than the second task's type.
      */
     private int compareType(Task task1, Task task2) {
-        return task1.getType().compareTo(task2.getType());
+        return Integer.compare(task1.getTypeOrder(), task2.getTypeOrder());
     }
 
     /**
@@ -0,0 +1,196 @@
+package simba.ui;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses tasks from their display form, eg. {@code [D] [X] buy eggs (by: 07 Feb 2025 18:00)},
+ * optionally numbered as in the output of the list command, eg. {@code 2. [T] [ ] borrow book}.
+ *
+ * <p>A line is parsed in place by index, so the only strings created for it are the name of the task.
+ * Large files are split into chunks on line boundaries, which are parsed in parallel on the common
+ * {@link ForkJoinPool} and joined back together in the order of the file.</p>
+ */
+class TaskFileParser {
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The tasks parsed from a file, and the number of lines that could not be parsed.
+     */
+    static class Parsed {
+        private final ArrayList<Task> tasks;
+        private int skipped;
+
+        private Parsed(ArrayList<Task> tasks, int skipped) {
+            this.tasks = tasks;
+            this.skipped = skipped;
+        }
+
+        /**
+         * Returns the parsed tasks.
+         *
+         * @return The tasks in the order of the file.
+         */
+        ArrayList<Task> getTasks() {
+            return this.tasks;
+        }
+
+        /**
+         * Returns the number of lines that could not be parsed.
+         *
+         * @return The number of lines skipped.
+         */
+        int getSkipped() {
+            return this.skipped;
+        }
+    }
+
+    /**
+     * Parses every line of a text file into a task. Blank lines are ignored.
+     *
+     * @param path The path of the file.
+     * @return The tasks in the order of the file, and the number of lines that could not be parsed.
+     * @throws IOException If the file cannot be read.
+     */
+    static Parsed parseFile(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        return ForkJoinPool.commonPool().invoke(new Chunk(bytes, 0, bytes.length));
+    }
+
+    /**
+     * Parses the part of a line between the specified indices into a task.
+     * A leading number followed by {@code ". "} is skipped.
+     *
+     * @param line The string holding the task.
+     * @param from The index of the first character of the task.
+     * @param to   The index after the last character of the task.
+     * @return The parsed task.
+     * @throws IllegalArgumentException If the line is not the display form of a task.
+     * @throws DateTimeParseException If a date in the line is malformed.
+     */
+    static Task parseLine(String line, int from, int to) {
+        if (from < to && line.charAt(from) != '[') {
+            int number = line.indexOf(". ", from);
+            if (number >= 0 && number < to) {
+                from = number + 2;
+            }
+        }
+        if (to - from < 8 || line.charAt(from) != '[' || line.charAt(from + 2) != ']') {
+            throw new IllegalArgumentException("Not a task: " + line.substring(from, to));
+        }
+        boolean isDone = line.charAt(from + 5) == 'X';
+        Task task;
+        switch (line.charAt(from + 1)) {
+        case 'T':
+            task = new ToDo(line.substring(from + 8, to));
+            break;
+        case 'D':
+            task = parseDeadline(line, from, to);
+            break;
+        case 'E':
+            task = parseEvent(line, from, to);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown task type: " + line.substring(from, to));
+        }
+        if (isDone) {
+            task.makeDone();
+        }
+        return task;
+    }
+
+    private static Deadline parseDeadline(String line, int from, int to) {
+        int by = line.indexOf("(by: ", from);
+        if (by < from + 9 || by >= to) {
+            throw new IllegalArgumentException("Not a deadline: " + line.substring(from, to));
+        }
+        LocalDateTime deadline = DateCodec.parseDisplay(line, by + 5, to - 1);
+        return new Deadline(line.substring(from + 8, by - 1), deadline);
+    }
+
+    private static Event parseEvent(String line, int from, int to) {
+        int start = line.indexOf("(from: ", from);
+        int end = line.lastIndexOf("to: ", to - 4);
+        if (start < from + 9 || start >= to || end < start + 12) {
+            throw new IllegalArgumentException("Not an event: " + line.substring(from, to));
+        }
+        LocalDateTime startDate = DateCodec.parseDisplay(line, start + 7, end - 1);
+        LocalDateTime endDate = DateCodec.parseDisplay(line, end + 4, to - 1);
+        return new Event(line.substring(from + 8, start - 1), startDate, endDate);
+    }
+
+    /**
+     * Parses a range of the bytes of a file, splitting it in half on a line boundary while it is large.
+     */
+    private static class Chunk extends RecursiveTask<Parsed> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bytes;
+        private final int from;
+        private final int to;
+
+        private Chunk(byte[] bytes, int from, int to) {
+            this.bytes = bytes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Parsed compute() {
+            if (this.to - this.from > CHUNK_SIZE) {
+                int middle = this.from + (this.to - this.from) / 2;
+                while (middle < this.to && this.bytes[middle - 1] != '\n') {
+                    middle++;
+                }
+                if (middle < this.to) {
+                    Chunk first = new Chunk(this.bytes, this.from, middle);
+                    first.fork();
+                    Parsed second = new Chunk(this.bytes, middle, this.to).compute();
+                    Parsed result = first.join();
+                    result.tasks.addAll(second.tasks);
+                    result.skipped += second.skipped;
+                    return result;
+                }
+            }
+            return this.parseLines();
+        }
+
+        private Parsed parseLines() {
+            String text = new String(this.bytes, this.from, this.to - this.from, StandardCharsets.UTF_8);
+            Parsed result = new Parsed(new ArrayList<>(), 0);
+            int start = 0;
+            while (start < text.length()) {
+                int end = text.indexOf('\n', start);
+                if (end < 0) {
+                    end = text.length();
+                }
+                int lineEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+                if (!isBlank(text, start, lineEnd)) {
+                    try {
+                        result.tasks.add(parseLine(text, start, lineEnd));
+                    } catch (RuntimeException e) {
+                        result.skipped++;
+                    }
+                }
+                start = end + 1;
+            }
+            return result;
+        }
+
+        private static boolean isBlank(String text, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (!Character.isWhitespace(text.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package simba.ui;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import exception.ui.DuplicateTaskException;
+import exception.ui.InvalidCommandException;
 
 /**
  * Represents a list of tasks, providing methods to manipulate and manage tasks.
@@ -12,18 +21,83 @@ import exception.ui.DuplicateTaskException;
  * <p>It supports the following functionalities:</p>
  * <ul>
  *     <li>Adding tasks to the list.</li>
- *     <li>Deleting tasks from the list.</li>
- *     <li>Marking tasks as done or undone.</li>
+ *     <li>Deleting tasks from the list, one at a time or many at once.</li>
+ *     <li>Marking tasks as done or undone, one at a time or many at once.</li>
  *     <li>Searching for tasks containing a specific word.</li>
+ *     <li>Finding deadlines due within a date range and tasks overlapping it.</li>
+ *     <li>Undoing and redoing the changes made by the latest commands, kept in a {@link History}.</li>
  * </ul>
+ *
+ * <p>The tasks are kept in a {@link TaskStore}, column by column, so a large list costs a few arrays
+ * instead of several objects per task. The list is kept sorted by {@link TaskComparator}, which orders
+ * equal tasks together, so duplicates are found by binary search.
+ * Searches are answered from a {@link SearchIndex}, and date range queries from a {@link DateIndex}.
+ * Each index is only built the first time it is needed, and is then kept up to date as tasks are added
+ * and deleted.</p>
+ *
+ * <p>The list can be read from any number of threads while it changes. Every change is made while holding the
+ * monitor of the underlying list, so changes are made one at a time, and counts towards the version of the list.
+ * Listing the tasks, showing a page of them, finding a short word, exporting and the stats command read
+ * a {@link Snapshot} of the list, published through an atomic reference and shared by every read until the list
+ * next changes. Reading the latest snapshot takes no lock, and the first read after a change only holds the
+ * monitor while it takes a new one, which shares the columns of the list rather than copying them
+ * (see {@link TaskStore#snapshot()}), so reads neither hold up changes nor see one half made.
+ * A run of changes with no reads in between takes no snapshots at all. The listing of every task is kept
+ * with the snapshot it was made from, and is made again from the lines the list keeps for each task, so only
+ * the tasks added or replaced since are rendered again. Searches answered from the indexes still hold the
+ * monitor, as the indexes are changed in place.</p>
  */
 public class TaskList {
-    private final ArrayList<Task> list;
+    private static final TaskComparator ORDER = new TaskComparator();
+
+    private final TaskStore list;
+    private SearchIndex searchIndex;
+    private DateIndex dateIndex;
+    private final Storage storage;
+    private final History history = new History(History.DEPTH);
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(-1, new TaskStore()));
+    private volatile long version;
+
+    /**
+     * A version of the list as it was after a number of changes, which is never changed itself.
+     */
+    static class Snapshot {
+        private final long version;
+        private final TaskStore tasks;
+        private String listing;
+
+        private Snapshot(long version, TaskStore tasks) {
+            this.version = version;
+            this.tasks = tasks;
+        }
+
+        /**
+         * Returns the number of changes made to the list before the snapshot was taken.
+         *
+         * @return The version of the list.
+         */
+        long getVersion() {
+            return this.version;
+        }
+
+        /**
+         * Returns the tasks in the list as they were when the snapshot was taken.
+         *
+         * @return The tasks, which should only be read.
+         */
+        TaskStore getTasks() {
+            return this.tasks;
+        }
+    }
 
     /**
      * Initializes a new TaskList instance with list of tasks read from storage.
+     * Every change made to the list afterwards is persisted through the same storage.
+     *
+     * @throws IOException If the tasks cannot be read.
      */
-    TaskList(Storage storage) {
+    TaskList(Storage storage) throws IOException {
+        this.storage = storage;
         this.list = storage.readFile();
     }
 
@@ -32,39 +106,131 @@ public class TaskList {
      *
      * @param idx The index of the task to delete.
      * @return A message indicating the task was deleted, or a message if the task doesn't exist.
+     * @throws IOException If the change cannot be persisted.
      */
-    String deleteTaskAsString(int idx) {
-        if (idx > this.list.size()) {
-            return "Task of this number does not exist";
+    String deleteTaskAsString(int idx) throws IOException {
+        synchronized (this.list) {
+            if (idx > this.list.size()) {
+                return "Task of this number does not exist";
+            }
+            String result = "Deleted task:\n"
+                    + idx + ". " + list.get(idx - 1) + "\n";
+            this.record(Journal.DELETE, list.get(idx - 1));
+            this.removeFromIndexes(this.list.remove(idx - 1));
+            this.storage.commit(this.changed());
+            result += "Now you have " + list.size() + " task(s) in the list";
+            return result;
         }
-        String result = "Deleted task:\n"
-                + idx + ". " + list.get(idx - 1) + "\n";
-        this.list.remove(idx - 1);
-        result += "Now you have " + list.size() + " task(s) in the list";
-        return result;
     }
 
     /**
-     * Adds a task to the list.
+     * Deletes the tasks at the specified positions as a single batch of changes to storage,
+     * removing them from the list in a single pass. A single task is deleted as by {@link #deleteTaskAsString(int)}.
+     *
+     * @param positions The positions of the tasks to delete, counting from 0.
+     * @return A message with the number of tasks deleted, or a message if any of the tasks doesn't exist.
+     * @throws IOException If the changes cannot be persisted.
+     */
+    String deleteTasksAsString(BitSet positions) throws IOException {
+        if (positions.cardinality() == 1) {
+            return this.deleteTaskAsString(positions.nextSetBit(0) + 1);
+        }
+        synchronized (this.list) {
+            if (positions.isEmpty()) {
+                return "Task list is empty";
+            }
+            if (positions.length() > this.list.size()) {
+                return "Task of this number does not exist";
+            }
+            this.storage.beginBatch();
+            try {
+                for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                    this.record(Journal.DELETE, this.list.get(i));
+                }
+                if (this.searchIndex != null || this.dateIndex != null) {
+                    for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                        this.removeFromIndexes(this.list.get(i));
+                    }
+                }
+                this.list.removeAt(positions);
+            } finally {
+                this.storage.endBatch(this.changed());
+            }
+            return "Deleted " + positions.cardinality() + " task(s)\n"
+                    + "Now you have " + this.list.size() + " task(s) in the list";
+        }
+    }
+
+    /**
+     * Adds a task to the list at its sorted position, found by binary search.
+     * A duplicate of an existing task would be found at the same position.
+     * The task is given the next id, which is shown with it and can be used to refer to it from then on.
      *
      * @param task The task to add.
      * @return A message indicating the task was added and the current task list size.
      * @throws DuplicateTaskException If the task is a duplicate of an existing task in the list.
+     * @throws IOException If the change cannot be persisted.
      */
-    String addTaskAsString(Task task) throws DuplicateTaskException {
-
-        for (int i = 0; i < list.size(); i++) {
-            if (task.equals(list.get(i))) {
+    String addTaskAsString(Task task) throws DuplicateTaskException, IOException {
+        synchronized (this.list) {
+            int position = this.list.search(task);
+            if (position >= 0) {
                 throw new DuplicateTaskException();
             }
+
+            this.list.assignId(task);
+            this.record(Journal.ADD, task);
+            position = -position - 1;
+            this.list.add(position, task);
+            this.addToIndexes(task);
+            String result = "Added task #" + task.getId() + ":\n"
+                    + (position + 1) + ". " + task + "\n";
+            result += "Now you have " + list.size() + " task(s) in the list";
+            this.storage.commit(this.changed());
+            return result;
         }
+    }
 
-        this.list.add(task);
-        String result = "Added task:\n"
-                + list.size() + ". " + list.get(list.size() - 1) + "\n";
-        result += "Now you have " + list.size() + " task(s) in the list";
-        list.sort(new TaskComparator());
-        return result;
+    /**
+     * Adds every task in a text file to the list, in the form shown by the list command.
+     * The file is parsed in parallel and sorted, and then merged into the list in a single pass,
+     * skipping tasks already in the list or repeated in the file. The whole list is then persisted
+     * with a single write.
+     *
+     * @param path The path of the text file.
+     * @return A message with the number of tasks added, duplicates skipped and lines that could not be read.
+     * @throws IOException If the file cannot be read or the change cannot be persisted.
+     */
+    String importTasksAsString(Path path) throws IOException {
+        TaskFileParser.Parsed parsed = TaskFileParser.parseFile(path);
+        ArrayList<Task> sorted = parsed.getTasks();
+        sorted.sort(ORDER);
+        synchronized (this.list) {
+            List<Task> added = this.list.mergeSorted(sorted, ORDER);
+            for (Task task : added) {
+                this.history.record(Journal.ADD, task);
+                this.addToIndexes(task);
+            }
+            if (!added.isEmpty()) {
+                this.storage.rewrite(this.changed());
+            }
+            return "Imported " + added.size() + " task(s), skipped " + (sorted.size() - added.size())
+                    + " duplicate(s) and " + parsed.getSkipped() + " unreadable line(s)\n"
+                    + "Now you have " + this.list.size() + " task(s) in the list";
+        }
+    }
+
+    /**
+     * Writes every task in the list to a text file, one per line, in the form shown by the list command.
+     *
+     * @param path The path of the text file.
+     * @return A message with the number of tasks exported.
+     * @throws IOException If the file cannot be written.
+     */
+    String exportTasksAsString(Path path) throws IOException {
+        TaskStore tasks = this.snapshot().tasks;
+        this.storage.exportToText(tasks, path);
+        return "Exported " + tasks.size() + " task(s) to " + path;
     }
 
     /**
@@ -72,14 +238,21 @@ public class TaskList {
      *
      * @param idx The index of the task to mark as done.
      * @return A message indicating the task is marked as done, or an error message if the task doesn't exist.
+     * @throws IOException If the change cannot be persisted.
      */
-    String markTaskAsString(int idx) {
-        if (idx > this.list.size()) {
-            return "Task of this number does not exist";
+    String markTaskAsString(int idx) throws IOException {
+        synchronized (this.list) {
+            if (idx > this.list.size()) {
+                return "Task of this number does not exist";
+            }
+            if (!this.list.isDone(idx - 1)) {
+                this.record(Journal.MARK, list.get(idx - 1));
+                this.list.setDone(idx - 1, true);
+                this.storage.commit(this.changed());
+            }
+            return "Alright! This task is done:\n"
+                    + idx + ". " + list.get(idx - 1);
         }
-        this.list.get(idx - 1).makeDone();
-        return "Alright! This task is done:\n"
-                + idx + ". " + list.get(idx - 1);
     }
 
     /**
@@ -87,14 +260,245 @@ public class TaskList {
      *
      * @param idx The index of the task to mark as not done.
      * @return A message indicating the task is marked as not done, or an error message if the task doesn't exist.
+     * @throws IOException If the change cannot be persisted.
+     */
+    String unmarkTaskAsString(int idx) throws IOException {
+        synchronized (this.list) {
+            if (idx > this.list.size()) {
+                return "Task of this number does not exist";
+            }
+            if (this.list.isDone(idx - 1)) {
+                this.record(Journal.UNMARK, list.get(idx - 1));
+                this.list.setDone(idx - 1, false);
+                this.storage.commit(this.changed());
+            }
+            return "Okay! This task is not done:\n"
+                    + idx + ". " + list.get(idx - 1);
+        }
+    }
+
+    /**
+     * Marks the tasks at the specified positions as done as a single batch of changes to storage.
+     * A single task is marked as by {@link #markTaskAsString(int)}.
+     *
+     * @param positions The positions of the tasks to mark as done, counting from 0.
+     * @return A message with the number of tasks marked, or a message if any of the tasks doesn't exist.
+     * @throws IOException If the changes cannot be persisted.
      */
-    String unmarkTaskAsString(int idx) {
-        if (idx > this.list.size()) {
-            return "Task of this number does not exist";
+    String markTasksAsString(BitSet positions) throws IOException {
+        if (positions.cardinality() == 1) {
+            return this.markTaskAsString(positions.nextSetBit(0) + 1);
+        }
+        return this.setDoneAsString(positions, true);
+    }
+
+    /**
+     * Marks the tasks at the specified positions as not done as a single batch of changes to storage.
+     * A single task is unmarked as by {@link #unmarkTaskAsString(int)}.
+     *
+     * @param positions The positions of the tasks to mark as not done, counting from 0.
+     * @return A message with the number of tasks unmarked, or a message if any of the tasks doesn't exist.
+     * @throws IOException If the changes cannot be persisted.
+     */
+    String unmarkTasksAsString(BitSet positions) throws IOException {
+        if (positions.cardinality() == 1) {
+            return this.unmarkTaskAsString(positions.nextSetBit(0) + 1);
+        }
+        return this.setDoneAsString(positions, false);
+    }
+
+    /**
+     * Marks many tasks as done or not done, only journaling the tasks that change.
+     */
+    private String setDoneAsString(BitSet positions, boolean isDone) throws IOException {
+        synchronized (this.list) {
+            if (positions.isEmpty()) {
+                return "Task list is empty";
+            }
+            if (positions.length() > this.list.size()) {
+                return "Task of this number does not exist";
+            }
+            int changed = 0;
+            this.storage.beginBatch();
+            try {
+                for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                    if (this.list.isDone(i) != isDone) {
+                        this.record(isDone ? Journal.MARK : Journal.UNMARK, this.list.get(i));
+                        changed++;
+                    }
+                }
+                this.list.setDone(positions, isDone);
+            } finally {
+                this.storage.endBatch(this.changed());
+            }
+            return (isDone ? "Alright! " : "Okay! ") + positions.cardinality() + " task(s) are "
+                    + (isDone ? "done" : "not done") + ", " + changed + " of them changed";
+        }
+    }
+
+    /**
+     * Starts recording the changes made by a command, so that they can be undone together.
+     *
+     * @param command The command about to run.
+     */
+    void startUndoStep(String command) {
+        synchronized (this.list) {
+            this.history.start(command);
+        }
+    }
+
+    /**
+     * Stops recording the changes made by the command, keeping them to be undone if there were any.
+     */
+    void finishUndoStep() {
+        synchronized (this.list) {
+            this.history.finish();
+        }
+    }
+
+    /**
+     * Reverts every change made by the current command and forgets its step, eg. when a line of a script fails.
+     * The opposite changes are recorded like those of an undo, so within a batch that is then discarded
+     * nothing is written at all.
+     *
+     * @throws IOException If the opposite changes cannot be recorded.
+     */
+    void rollBackUndoStep() throws IOException {
+        synchronized (this.list) {
+            History.Step step = this.history.abandon();
+            if (step != null) {
+                this.apply(step, true);
+            }
+        }
+    }
+
+    /**
+     * Undoes the changes made by the latest command that has not been undone,
+     * persisting the opposite changes as a single batch.
+     *
+     * @return A message with the command undone, or a message if there is nothing to undo.
+     * @throws IOException If the changes cannot be persisted.
+     */
+    String undoAsString() throws IOException {
+        synchronized (this.list) {
+            History.Step step = this.history.undo();
+            if (step == null) {
+                return "Nothing to undo";
+            }
+            this.apply(step, true);
+            return "Undone: " + step.getCommand() + "\n"
+                    + "Now you have " + this.list.size() + " task(s) in the list";
+        }
+    }
+
+    /**
+     * Redoes the changes made by the latest command that was undone, persisting them again as a single batch.
+     *
+     * @return A message with the command redone, or a message if there is nothing to redo.
+     * @throws IOException If the changes cannot be persisted.
+     */
+    String redoAsString() throws IOException {
+        synchronized (this.list) {
+            History.Step step = this.history.redo();
+            if (step == null) {
+                return "Nothing to redo";
+            }
+            this.apply(step, false);
+            return "Redone: " + step.getCommand() + "\n"
+                    + "Now you have " + this.list.size() + " task(s) in the list";
+        }
+    }
+
+    /**
+     * Applies the changes of a step again, or their opposites in reverse to undo them.
+     * Tasks are found by their content, and added back with the id they had.
+     */
+    private void apply(History.Step step, boolean isUndoing) throws IOException {
+        this.storage.beginBatch();
+        try {
+            for (int k = 0; k < step.size(); k++) {
+                int i = isUndoing ? step.size() - 1 - k : k;
+                char op = isUndoing ? opposite(step.opAt(i)) : step.opAt(i);
+                Task task = step.taskAt(i);
+                int position = this.list.search(task);
+                if (op == Journal.ADD && position < 0) {
+                    this.storage.record(op, task);
+                    this.list.add(-position - 1, task);
+                    this.addToIndexes(task);
+                } else if (op == Journal.DELETE && position >= 0) {
+                    this.storage.record(op, task);
+                    this.removeFromIndexes(this.list.remove(position));
+                } else if ((op == Journal.MARK || op == Journal.UNMARK) && position >= 0) {
+                    this.storage.record(op, task);
+                    this.list.setDone(position, op == Journal.MARK);
+                }
+            }
+        } finally {
+            this.storage.endBatch(this.changed());
+        }
+    }
+
+    private static char opposite(char op) {
+        switch (op) {
+        case Journal.ADD:
+            return Journal.DELETE;
+        case Journal.DELETE:
+            return Journal.ADD;
+        case Journal.MARK:
+            return Journal.UNMARK;
+        default:
+            return Journal.MARK;
+        }
+    }
+
+    private void record(char op, Task task) throws IOException {
+        this.storage.record(op, task);
+        this.history.record(op, task);
+    }
+
+    /**
+     * Counts a change to the list, so that the next read takes a snapshot that sees it.
+     *
+     * @return The list, to be persisted.
+     */
+    private TaskStore changed() {
+        this.version++;
+        return this.list;
+    }
+
+    /**
+     * Returns a snapshot of the list with every change made so far, taking one if the list changed
+     * since the latest snapshot was taken.
+     *
+     * @return The snapshot.
+     */
+    Snapshot snapshot() {
+        Snapshot latest = this.snapshot.get();
+        if (latest.version == this.version) {
+            return latest;
+        }
+        synchronized (this.list) {
+            latest = this.snapshot.get();
+            if (latest.version != this.version) {
+                latest = new Snapshot(this.version, this.list.snapshot());
+                this.snapshot.set(latest);
+            }
+            return latest;
+        }
+    }
+
+    /**
+     * Finds the tasks selected by a "mark", "unmark" or "delete" command in the list as it is now,
+     * by their positions or by their ids.
+     *
+     * @param parser The parser of the command.
+     * @return The positions of the tasks, counting from 0.
+     * @throws InvalidCommandException If the command does not list task numbers, ranges or ids.
+     */
+    BitSet positionsToUse(Parser parser) throws InvalidCommandException {
+        synchronized (this.list) {
+            return parser.positionsToUse(this.list);
         }
-        this.list.get(idx - 1).makeUndone();
-        return "Okay! This task is not done:\n"
-                + idx + ". " + list.get(idx - 1);
     }
 
     /**
@@ -104,28 +508,185 @@ public class TaskList {
      * @return A string with the tasks that match the search word, or a message indicating no tasks were found.
      */
     String findTaskAsString(String word) {
-        boolean found = false;
-        String result = "Here are the matching task(s):\n";
-        for (int i = 0; i < this.list.size(); i++) {
-            if (this.list.get(i).getName().contains(word)) {
-                int idx = i + 1;
-                result += idx + ". " + list.get(i) + "\n";
-                found = true;
+        if (word.length() >= SearchIndex.GRAM_LENGTH) {
+            synchronized (this.list) {
+                return this.matchesAsString(this.searchIndex().containing(word));
+            }
+        }
+        TaskStore tasks = this.snapshot().tasks;
+        StringBuilder result = new StringBuilder("Here are the matching task(s):\n");
+        int length = result.length();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.nameAt(i).contains(word)) {
+                tasks.appendLineTo(result.append(i + 1).append(". "), i).append('\n');
             }
         }
-        if (!found) {
+        return result.length() == length ? "There are no matching tasks in the list" : result.toString();
+    }
+
+    /**
+     * Searches for tasks that contain every one of the specified words, regardless of case.
+     * A word ending in {@code *} matches any word starting with the rest of it.
+     *
+     * @param words The words to search for, separated by spaces.
+     * @return A string with the tasks that match every word, or a message indicating no tasks were found.
+     */
+    String searchTaskAsString(String words) {
+        synchronized (this.list) {
+            return this.matchesAsString(this.searchIndex().matchingAll(words));
+        }
+    }
+
+    /**
+     * Finds the deadlines that are due within the specified range.
+     *
+     * @param from The start of the range.
+     * @param to   The end of the range.
+     * @return A string with the deadlines due within the range, or a message indicating no tasks were found.
+     */
+    String dueTaskAsString(LocalDateTime from, LocalDateTime to) {
+        synchronized (this.list) {
+            return this.matchesAsString(this.dateIndex().dueBetween(from, to));
+        }
+    }
+
+    /**
+     * Finds the events that overlap the specified range, and the deadlines due within it.
+     *
+     * @param from The start of the range.
+     * @param to   The end of the range.
+     * @return A string with the tasks that overlap the range, or a message indicating no tasks were found.
+     */
+    String overlapTaskAsString(LocalDateTime from, LocalDateTime to) {
+        synchronized (this.list) {
+            return this.matchesAsString(this.dateIndex().overlapping(from, to));
+        }
+    }
+
+    private String matchesAsString(Collection<Task> matches) {
+        if (matches.isEmpty()) {
             return "There are no matching tasks in the list";
-        } else {
-            return result;
         }
+        int[] positions = new int[matches.size()];
+        int count = 0;
+        for (Task task : matches) {
+            positions[count++] = this.list.search(task);
+        }
+        Arrays.sort(positions);
+        StringBuilder result = new StringBuilder("Here are the matching task(s):\n");
+        for (int position : positions) {
+            this.list.appendLineTo(result.append(position + 1).append(". "), position).append('\n');
+        }
+        return result.toString();
     }
 
     /**
-     * Returns the list of tasks.
+     * Returns every task in the list, one per line, in the same form they are written to storage.
+     * The result is kept with the snapshot it was made from, so it is reused until the list next changes,
+     * and each line is taken from {@link TaskStore#appendLineTo}, which only renders tasks changed since.
+     * Two threads listing the same snapshot at once may both make it, which is harmless as they make the same.
      *
-     * @return The list of tasks.
+     * @return The tasks in the list, or a message indicating the list is empty.
      */
-    ArrayList<Task> getList() {
-        return this.list;
+    String listAsString() {
+        Snapshot snapshot = this.snapshot();
+        if (snapshot.tasks.isEmpty()) {
+            return "Task list is empty";
+        }
+        if (snapshot.listing == null) {
+            snapshot.listing = linesAsString(snapshot.tasks, 0, snapshot.tasks.size()).toString();
+        }
+        return snapshot.listing;
+    }
+
+    /**
+     * Returns one page of the tasks in the list, one per line, followed by the range of tasks shown.
+     *
+     * @param page  The number of the page, starting from 1.
+     * @param limit The number of tasks on each page.
+     * @return The tasks on the page, or a message indicating the list is empty or the page does not exist.
+     */
+    String listPageAsString(int page, int limit) {
+        assert page > 0 && limit > 0 : "Page and limit should be positive";
+        TaskStore tasks = this.snapshot().tasks;
+        if (tasks.isEmpty()) {
+            return "Task list is empty";
+        }
+        long start = (long) (page - 1) * limit;
+        if (start >= tasks.size()) {
+            return "Page of this number does not exist";
+        }
+        int end = (int) Math.min(start + limit, tasks.size());
+        return linesAsString(tasks, (int) start, end)
+                .append("Showing task(s) ").append(start + 1).append(" to ").append(end)
+                .append(" of ").append(tasks.size())
+                .toString();
+    }
+
+    private static StringBuilder linesAsString(TaskStore tasks, int start, int end) {
+        StringBuilder result = new StringBuilder();
+        for (int i = start; i < end; i++) {
+            tasks.appendLineTo(result.append(i + 1).append(". "), i).append('\n');
+        }
+        return result;
+    }
+
+    private void addToIndexes(Task task) {
+        if (this.searchIndex != null) {
+            this.searchIndex.add(task);
+        }
+        if (this.dateIndex != null) {
+            this.dateIndex.add(task);
+        }
+    }
+
+    private void removeFromIndexes(Task task) {
+        if (this.searchIndex != null) {
+            this.searchIndex.remove(task);
+        }
+        if (this.dateIndex != null) {
+            this.dateIndex.remove(task);
+        }
+    }
+
+    private SearchIndex searchIndex() {
+        if (this.searchIndex == null) {
+            SearchIndex index = new SearchIndex();
+            for (Task task : this.list) {
+                index.add(task);
+            }
+            this.searchIndex = index;
+        }
+        return this.searchIndex;
+    }
+
+    private DateIndex dateIndex() {
+        if (this.dateIndex == null) {
+            DateIndex index = new DateIndex();
+            for (Task task : this.list) {
+                index.add(task);
+            }
+            this.dateIndex = index;
+        }
+        return this.dateIndex;
+    }
+
+    /**
+     * Returns the number of tasks in the list and how many bytes their names take.
+     *
+     * @return The statistics of the list.
+     */
+    String statsAsString() {
+        TaskStore tasks = this.snapshot().tasks;
+        return "Tasks: " + tasks.size() + "\n" + tasks.namesStatsAsString();
+    }
+
+    /**
+     * Returns the tasks in the list as of the latest change, which later changes do not affect.
+     *
+     * @return The list of tasks, which should only be read.
+     */
+    TaskStore getList() {
+        return this.snapshot().tasks;
     }
 }
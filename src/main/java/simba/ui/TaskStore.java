@@ -0,0 +1,769 @@
+package simba.ui;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A compact list of tasks, stored column by column instead of as several objects per task:
+ * <ul>
+ *     <li>The type of every task in a {@code byte[]}, one of {@code 'T'}, {@code 'D'} or {@code 'E'}.</li>
+ *     <li>Whether every task is done in a {@link BitSet}.</li>
+ *     <li>The start and end date of every task in {@code long[]}s, in minutes since the epoch, 0 if it has none.</li>
+ *     <li>The name of every task as the id of its entry in a {@link NamePool}, which stores every distinct
+ *     name once as UTF-8 bytes.</li>
+ * </ul>
+ *
+ * <p>A {@link ToDo}, {@link Deadline} or {@link Event} is only created when a task is read with {@link #get(int)},
+ * eg. to render or compare it, and is not kept afterwards. Changing such a task does not change the store,
+ * so tasks are marked and unmarked with {@link #setDone(int, boolean)} instead.
+ * The rendered form of each task, without whether it is done, is kept in one more column once it is listed
+ * (see {@link #appendLineTo(StringBuilder, int)}), which moves with the other columns and is only cleared
+ * for a task that is replaced, so listing again only renders the tasks added since.</p>
+ *
+ * <p>Every task is given an id when it is added, which is never reused, and stays with the task however the
+ * positions of the tasks around it change. A task is found by its id with {@link #positionOf(int)}, through
+ * a table from ids to positions. Ids are small and dense, so the table is indexed by the id itself rather
+ * than hashed. It is only built the first time a task is looked up by its id, and is kept up to date afterwards:
+ * an insertion or removal updates the positions of the tasks it shifts, which it moves in the columns anyway,
+ * so a lookup costs the same however large the store is and however changes and lookups are interleaved.</p>
+ *
+ * <p>A snapshot of the store, taken with {@link #snapshot()}, shares its columns instead of copying them,
+ * so taking one is cheap however large the store is. The store copies a column the first time it changes it
+ * after a snapshot was taken, so the snapshot never changes and can be read from other threads without locking,
+ * eg. to be written to disk while the store keeps changing. Marking tasks only copies whether they are done,
+ * and adding or removing a task moves most of the columns anyway, so this costs little more than the change.</p>
+ *
+ * <p>The columns are laid out as in the snapshot (see {@link SnapshotCodec}),
+ * so a store is encoded and decoded with a few bulk copies.
+ * Tasks are looked up by binary search over the columns with {@link #search(Task)}, which only decodes
+ * a name when the two names compared have different ids.</p>
+ */
+class TaskStore extends AbstractList<Task> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int TAIL_START = "[T] [ ] ".length();
+
+    private int size;
+    private byte[] types;
+    private BitSet done;
+    private long[] starts;
+    private long[] ends;
+    private int[] nameIds;
+    private int[] ids;
+    private String[] tails;
+    private int nextId = 1;
+    private NamePool names;
+    private int[] positionsById;
+    private boolean isShared;
+    private boolean isDoneShared;
+
+    /**
+     * Initializes a new empty TaskStore.
+     */
+    TaskStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private TaskStore(int capacity) {
+        this.types = new byte[capacity];
+        this.done = new BitSet(capacity);
+        this.starts = new long[capacity];
+        this.ends = new long[capacity];
+        this.nameIds = new int[capacity];
+        this.ids = new int[capacity];
+        this.tails = new String[capacity];
+        this.names = new NamePool(NamePool.IS_INTERNING);
+    }
+
+    /**
+     * Initializes a new TaskStore sharing the columns of another store, and marks them shared in both,
+     * so that whichever changes them first copies them. A store that is already shared is left as it is,
+     * so taking a snapshot of a snapshot does not write to it.
+     */
+    private TaskStore(TaskStore source) {
+        this.size = source.size;
+        this.types = source.types;
+        this.done = source.done;
+        this.starts = source.starts;
+        this.ends = source.ends;
+        this.nameIds = source.nameIds;
+        this.ids = source.ids;
+        this.tails = source.tails;
+        this.nextId = source.nextId;
+        this.names = source.names;
+        this.isShared = true;
+        this.isDoneShared = true;
+        if (!source.isShared || !source.isDoneShared) {
+            source.isShared = true;
+            source.isDoneShared = true;
+        }
+    }
+
+    /**
+     * Initializes a new TaskStore holding the specified columns, eg. as read from a snapshot.
+     * The arrays other than the names are used as they are, without being copied.
+     *
+     * @param size        The number of tasks.
+     * @param types       The type of every task.
+     * @param done        The tasks that are done.
+     * @param starts      The start date of every task, in minutes since the epoch.
+     * @param ends        The end date of every task, in minutes since the epoch.
+     * @param ids         The id of every task.
+     * @param nextId      The id given to the next task added, which is above every id given so far.
+     * @param nameLengths The length of the name of every task, in bytes.
+     * @param names       The names of the tasks, back to back.
+     */
+    TaskStore(int size, byte[] types, BitSet done, long[] starts, long[] ends, int[] ids, int nextId,
+            int[] nameLengths, byte[] names) {
+        this.size = size;
+        this.types = types;
+        this.done = done;
+        this.starts = starts;
+        this.ends = ends;
+        this.ids = ids;
+        this.tails = new String[types.length];
+        this.nextId = nextId;
+        this.nameIds = new int[size];
+        this.names = new NamePool(NamePool.IS_INTERNING);
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            this.nameIds[i] = this.names.add(names, offset, nameLengths[i]);
+            offset += nameLengths[i];
+        }
+    }
+
+    /**
+     * Creates a TaskStore holding the specified tasks, in the same order.
+     * Tasks keep the ids they already have, and the others are given new ones.
+     *
+     * @param tasks The tasks to hold.
+     * @return The store.
+     */
+    static TaskStore of(Collection<? extends Task> tasks) {
+        TaskStore store = new TaskStore(Math.max(INITIAL_CAPACITY, tasks.size()));
+        for (Task task : tasks) {
+            store.nextId = Math.max(store.nextId, task.getId() + 1);
+        }
+        for (Task task : tasks) {
+            store.add(store.size, task);
+        }
+        return store;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns a copy of the store as it is now, which later changes to the store do not affect.
+     * The copy shares the columns of the store until the store changes them, and should only be read.
+     * Tasks in the copy can only be looked up by position, not by id.
+     *
+     * @return The copy.
+     */
+    TaskStore snapshot() {
+        return new TaskStore(this);
+    }
+
+    /**
+     * Creates the task at the specified position from its columns.
+     *
+     * @param idx The position of the task.
+     * @return A new task equal to the one at the position.
+     */
+    @Override
+    public Task get(int idx) {
+        this.checkIndex(idx);
+        String name = this.nameAt(idx);
+        Task task;
+        switch (this.types[idx]) {
+        case 'D':
+            task = new Deadline(name, fromEpochMinute(this.starts[idx]));
+            break;
+        case 'E':
+            task = new Event(name, fromEpochMinute(this.starts[idx]), fromEpochMinute(this.ends[idx]));
+            break;
+        default:
+            task = new ToDo(name);
+            break;
+        }
+        if (this.done.get(idx)) {
+            task.makeDone();
+        }
+        task.setId(this.ids[idx]);
+        return task;
+    }
+
+    /**
+     * Appends the task at the specified position as it is shown in a list, eg. "[T] [X] borrow book".
+     * Everything after whether the task is done is rendered the first time and kept, as it only changes
+     * when the task is replaced, so marking a task does not make it render again.
+     *
+     * @param out The builder to append the task to.
+     * @param idx The position of the task.
+     * @return The builder.
+     */
+    StringBuilder appendLineTo(StringBuilder out, int idx) {
+        String tail = this.tails[idx];
+        if (tail == null) {
+            tail = this.get(idx).toString().substring(TAIL_START);
+            this.tails[idx] = tail;
+        }
+        return out.append('[').append((char) this.types[idx]).append("] [")
+                .append(this.done.get(idx) ? 'X' : ' ').append("] ").append(tail);
+    }
+
+    /**
+     * Inserts a task at the specified position, shifting the tasks after it.
+     * The task is given a new id unless it already has one, eg. from {@link #assignId(Task)}.
+     *
+     * @param idx  The position to insert the task at.
+     * @param task The task to insert.
+     */
+    @Override
+    public void add(int idx, Task task) {
+        if (idx < 0 || idx > this.size) {
+            throw new IndexOutOfBoundsException("Index " + idx + " out of bounds for length " + this.size);
+        }
+        this.ownColumns();
+        this.ownDone();
+        if (this.size == this.types.length) {
+            this.grow(this.size + 1);
+        }
+        int moved = this.size - idx;
+        System.arraycopy(this.types, idx, this.types, idx + 1, moved);
+        System.arraycopy(this.starts, idx, this.starts, idx + 1, moved);
+        System.arraycopy(this.ends, idx, this.ends, idx + 1, moved);
+        System.arraycopy(this.nameIds, idx, this.nameIds, idx + 1, moved);
+        System.arraycopy(this.ids, idx, this.ids, idx + 1, moved);
+        System.arraycopy(this.tails, idx, this.tails, idx + 1, moved);
+        this.moveDone(idx, this.size, idx + 1);
+        this.size++;
+        this.write(idx, task, this.assignId(task));
+        this.reindex(idx + 1, this.size);
+        this.modCount++;
+    }
+
+    /**
+     * Replaces the task at the specified position, which keeps its id unless the task already has one.
+     *
+     * @param idx  The position of the task.
+     * @param task The task to put in its place.
+     * @return The task that was at the position.
+     */
+    @Override
+    public Task set(int idx, Task task) {
+        Task previous = this.get(idx);
+        this.ownColumns();
+        this.ownDone();
+        this.names.release(this.nameIds[idx]);
+        int id = task.getId() > 0 ? task.getId() : this.ids[idx];
+        if (id != this.ids[idx] && this.positionsById != null) {
+            this.positionsById[this.ids[idx]] = -1;
+        }
+        task.setId(id);
+        this.nextId = Math.max(this.nextId, id + 1);
+        this.write(idx, task, id);
+        return previous;
+    }
+
+    /**
+     * Removes the task at the specified position, shifting the tasks after it.
+     *
+     * @param idx The position of the task.
+     * @return The task that was removed.
+     */
+    @Override
+    public Task remove(int idx) {
+        Task removed = this.get(idx);
+        this.ownColumns();
+        this.ownDone();
+        this.names.release(this.nameIds[idx]);
+        this.forgetId(this.ids[idx]);
+        int moved = this.size - idx - 1;
+        System.arraycopy(this.types, idx + 1, this.types, idx, moved);
+        System.arraycopy(this.starts, idx + 1, this.starts, idx, moved);
+        System.arraycopy(this.ends, idx + 1, this.ends, idx, moved);
+        System.arraycopy(this.nameIds, idx + 1, this.nameIds, idx, moved);
+        System.arraycopy(this.ids, idx + 1, this.ids, idx, moved);
+        System.arraycopy(this.tails, idx + 1, this.tails, idx, moved);
+        this.tails[this.size - 1] = null;
+        this.moveDone(idx + 1, this.size, idx);
+        this.done.clear(this.size - 1);
+        this.size--;
+        this.reindex(idx, this.size);
+        this.modCount++;
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at the specified positions in a single pass, moving each task kept at most once.
+     *
+     * @param positions The positions of the tasks to remove.
+     * @throws IndexOutOfBoundsException If any position is beyond the end of the store.
+     */
+    void removeAt(BitSet positions) {
+        int to = positions.nextSetBit(0);
+        if (to < 0) {
+            return;
+        }
+        this.checkIndex(positions.length() - 1);
+        this.ownColumns();
+        this.ownDone();
+        for (int i = to; i >= 0; i = positions.nextSetBit(i + 1)) {
+            this.names.release(this.nameIds[i]);
+            this.forgetId(this.ids[i]);
+        }
+        int first = to;
+        int from = positions.nextClearBit(to);
+        while (from < this.size) {
+            int end = positions.nextSetBit(from);
+            if (end < 0) {
+                end = this.size;
+            }
+            int moved = end - from;
+            System.arraycopy(this.types, from, this.types, to, moved);
+            System.arraycopy(this.starts, from, this.starts, to, moved);
+            System.arraycopy(this.ends, from, this.ends, to, moved);
+            System.arraycopy(this.nameIds, from, this.nameIds, to, moved);
+            System.arraycopy(this.ids, from, this.ids, to, moved);
+            System.arraycopy(this.tails, from, this.tails, to, moved);
+            this.moveDone(from, end, to);
+            to += moved;
+            from = positions.nextClearBit(end);
+        }
+        this.done.clear(to, this.size);
+        Arrays.fill(this.tails, to, this.size, null);
+        this.size = to;
+        this.reindex(first, this.size);
+        this.modCount++;
+    }
+
+    /**
+     * Moves whether the tasks from {@code from} up to {@code end} are done to the positions starting at {@code to},
+     * a word of 64 positions at a time, overwriting the positions moved to.
+     */
+    private void moveDone(int from, int end, int to) {
+        if (from >= end) {
+            return;
+        }
+        long[] words = this.done.get(from, end).toLongArray();
+        int wordShift = to >>> 6;
+        int bitShift = to & 63;
+        long[] shifted = new long[wordShift + words.length + 1];
+        for (int i = 0; i < words.length; i++) {
+            shifted[wordShift + i] |= words[i] << bitShift;
+            if (bitShift != 0) {
+                shifted[wordShift + i + 1] |= words[i] >>> (64 - bitShift);
+            }
+        }
+        this.done.clear(to, to + end - from);
+        this.done.or(BitSet.valueOf(shifted));
+    }
+
+    @Override
+    public void clear() {
+        this.ownColumns();
+        Arrays.fill(this.tails, 0, this.size, null);
+        this.size = 0;
+        this.done = new BitSet();
+        this.isDoneShared = false;
+        this.names = new NamePool(this.names.isInterning());
+        this.positionsById = null;
+        this.modCount++;
+    }
+
+    /**
+     * Merges tasks into the store, which stays sorted, in a single pass over both.
+     * Tasks equal to one already in the store, or repeated among the tasks, are skipped.
+     *
+     * @param sorted The tasks to merge, sorted by {@code order}.
+     * @param order  The order of the store and the tasks.
+     * @return The tasks that were added.
+     */
+    List<Task> mergeSorted(List<Task> sorted, Comparator<Task> order) {
+        TaskStore merged = new TaskStore(Math.max(INITIAL_CAPACITY, this.size + sorted.size()));
+        merged.nextId = this.nextId;
+        ArrayList<Task> added = new ArrayList<>();
+        int i = 0;
+        Task current = this.size > 0 ? this.get(0) : null;
+        Task last = null;
+        for (Task task : sorted) {
+            while (current != null && order.compare(current, task) < 0) {
+                merged.add(merged.size, current);
+                current = ++i < this.size ? this.get(i) : null;
+            }
+            if ((current != null && order.compare(current, task) == 0)
+                    || (last != null && order.compare(last, task) == 0)) {
+                continue;
+            }
+            merged.add(merged.size, task);
+            added.add(task);
+            last = task;
+        }
+        while (current != null) {
+            merged.add(merged.size, current);
+            current = ++i < this.size ? this.get(i) : null;
+        }
+
+        this.size = merged.size;
+        this.types = merged.types;
+        this.done = merged.done;
+        this.starts = merged.starts;
+        this.ends = merged.ends;
+        this.nameIds = merged.nameIds;
+        this.ids = merged.ids;
+        this.tails = merged.tails;
+        this.nextId = merged.nextId;
+        this.names = merged.names;
+        this.isShared = false;
+        this.isDoneShared = false;
+        this.positionsById = null;
+        this.modCount++;
+        return added;
+    }
+
+    /**
+     * Marks the task at the specified position as done or not done.
+     *
+     * @param idx    The position of the task.
+     * @param isDone Whether the task is done.
+     */
+    void setDone(int idx, boolean isDone) {
+        this.checkIndex(idx);
+        this.ownDone();
+        this.done.set(idx, isDone);
+    }
+
+    /**
+     * Marks the tasks at the specified positions as done or not done, a word of positions at a time.
+     *
+     * @param positions The positions of the tasks.
+     * @param isDone    Whether the tasks are done.
+     * @throws IndexOutOfBoundsException If any position is beyond the end of the store.
+     */
+    void setDone(BitSet positions, boolean isDone) {
+        if (positions.isEmpty()) {
+            return;
+        }
+        this.checkIndex(positions.length() - 1);
+        this.ownDone();
+        if (isDone) {
+            this.done.or(positions);
+        } else {
+            this.done.andNot(positions);
+        }
+    }
+
+    /**
+     * Returns whether the task at the specified position is done.
+     *
+     * @param idx The position of the task.
+     * @return {@code true} if the task is done, {@code false} otherwise.
+     */
+    boolean isDone(int idx) {
+        this.checkIndex(idx);
+        return this.done.get(idx);
+    }
+
+    /**
+     * Returns the id of the task at the specified position.
+     *
+     * @param idx The position of the task.
+     * @return The id of the task.
+     */
+    int idAt(int idx) {
+        this.checkIndex(idx);
+        return this.ids[idx];
+    }
+
+    /**
+     * Returns the id the next task added is given, which is above every id given so far.
+     *
+     * @return The next id.
+     */
+    int nextId() {
+        return this.nextId;
+    }
+
+    /**
+     * Gives a task the next id, unless it already has one, eg. so that the id can be journaled before
+     * the task is added. An id is never given twice, even once the task holding it is removed.
+     *
+     * @param task The task.
+     * @return The id of the task.
+     */
+    int assignId(Task task) {
+        if (task.getId() == 0) {
+            task.setId(this.nextId);
+        }
+        this.nextId = Math.max(this.nextId, task.getId() + 1);
+        return task.getId();
+    }
+
+    /**
+     * Raises the id the next task added is given, eg. above the ids of tasks that were added and removed
+     * again since the store was last written.
+     *
+     * @param id The lowest id the next task may be given.
+     */
+    void reserveIdsBelow(int id) {
+        this.nextId = Math.max(this.nextId, id);
+    }
+
+    /**
+     * Finds the position of the task with the specified id, building the table from ids to positions
+     * the first time.
+     *
+     * @param id The id of the task.
+     * @return The position of the task, or -1 if no task in the store has the id.
+     */
+    int positionOf(int id) {
+        if (this.positionsById == null) {
+            this.positionsById = new int[Math.max(INITIAL_CAPACITY, this.nextId)];
+            Arrays.fill(this.positionsById, -1);
+            this.reindex(0, this.size);
+        }
+        return id > 0 && id < this.positionsById.length ? this.positionsById[id] : -1;
+    }
+
+    /**
+     * Returns the type of the task at the specified position.
+     *
+     * @param idx The position of the task.
+     * @return {@code 'T'}, {@code 'D'} or {@code 'E'}.
+     */
+    byte typeAt(int idx) {
+        this.checkIndex(idx);
+        return this.types[idx];
+    }
+
+    /**
+     * Returns the start date of the task at the specified position.
+     *
+     * @param idx The position of the task.
+     * @return The start date in minutes since the epoch, or 0 for a ToDo.
+     */
+    long startAt(int idx) {
+        this.checkIndex(idx);
+        return this.starts[idx];
+    }
+
+    /**
+     * Returns the end date of the task at the specified position.
+     *
+     * @param idx The position of the task.
+     * @return The end date in minutes since the epoch, or 0 unless the task is an Event.
+     */
+    long endAt(int idx) {
+        this.checkIndex(idx);
+        return this.ends[idx];
+    }
+
+    /**
+     * Returns the length of the name of the task at the specified position.
+     *
+     * @param idx The position of the task.
+     * @return The length of the UTF-8 encoded name in bytes.
+     */
+    int nameLengthAt(int idx) {
+        this.checkIndex(idx);
+        return this.names.length(this.nameIds[idx]);
+    }
+
+    /**
+     * Copies the UTF-8 encoded name of the task at the specified position into a buffer.
+     *
+     * @param idx    The position of the task.
+     * @param buffer The buffer to copy the name into, at its position.
+     */
+    void copyNameTo(int idx, ByteBuffer buffer) {
+        this.checkIndex(idx);
+        this.names.copyTo(this.nameIds[idx], buffer);
+    }
+
+    /**
+     * Returns the name of the task at the specified position.
+     *
+     * @param idx The position of the task.
+     * @return The name of the task.
+     */
+    String nameAt(int idx) {
+        this.checkIndex(idx);
+        return this.names.get(this.nameIds[idx]);
+    }
+
+    /**
+     * Finds a task by binary search, assuming the store is sorted by {@link TaskComparator}.
+     * The task is compared with the columns directly, and names with the same id are equal without being decoded.
+     *
+     * @param task The task to find.
+     * @return The position of a task equal to it, or {@code -(insertion point) - 1} if there is none,
+     *         as returned by {@link java.util.Collections#binarySearch(List, Object, Comparator)}.
+     */
+    int search(Task task) {
+        int typeOrder = task.getTypeOrder();
+        long start = toEpochMinute(task.getDate());
+        long end = toEpochMinute(task.getEndDate());
+        String name = task.getName();
+        int nameId = this.names.find(name);
+        int low = 0;
+        int high = this.size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = Integer.compare(typeOrderOf(this.types[middle]), typeOrder);
+            if (result == 0) {
+                result = Long.compare(this.starts[middle], start);
+            }
+            if (result == 0) {
+                result = Long.compare(this.ends[middle], end);
+            }
+            if (result == 0 && this.nameIds[middle] != nameId) {
+                result = this.names.get(this.nameIds[middle]).compareTo(name);
+            }
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns how many bytes the names of the tasks take, and how many sharing them saves.
+     *
+     * @return The statistics of the names.
+     */
+    String namesStatsAsString() {
+        return this.names.statsAsString();
+    }
+
+    /**
+     * Converts a date to the number of minutes since the epoch it is stored as.
+     *
+     * @param date The date, or {@code null} if there is none.
+     * @return The minutes since the epoch, or 0 if there is no date.
+     */
+    static long toEpochMinute(LocalDateTime date) {
+        if (date == null) {
+            return 0;
+        }
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Converts a number of minutes since the epoch back to a date.
+     *
+     * @param minute The minutes since the epoch.
+     * @return The date.
+     */
+    static LocalDateTime fromEpochMinute(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private void write(int idx, Task task, int id) {
+        this.types[idx] = typeOf(task);
+        this.done.set(idx, task.isDone());
+        this.starts[idx] = toEpochMinute(task.getDate());
+        this.ends[idx] = toEpochMinute(task.getEndDate());
+        this.nameIds[idx] = this.names.add(task.getName());
+        this.ids[idx] = id;
+        this.tails[idx] = null;
+        if (this.positionsById != null) {
+            if (id >= this.positionsById.length) {
+                int length = this.positionsById.length;
+                this.positionsById = Arrays.copyOf(this.positionsById, Math.max(id + 1, length * 2));
+                Arrays.fill(this.positionsById, length, this.positionsById.length, -1);
+            }
+            this.positionsById[id] = idx;
+        }
+    }
+
+    /**
+     * Records the positions of the tasks from {@code from} up to {@code to} in the table from ids to positions,
+     * eg. after they were shifted, if the table is built.
+     */
+    private void reindex(int from, int to) {
+        if (this.positionsById == null) {
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            this.positionsById[this.ids[i]] = i;
+        }
+    }
+
+    private void forgetId(int id) {
+        if (this.positionsById != null) {
+            this.positionsById[id] = -1;
+        }
+    }
+
+    /**
+     * Copies the columns other than whether tasks are done, if they are shared with a snapshot.
+     */
+    private void ownColumns() {
+        if (!this.isShared) {
+            return;
+        }
+        this.types = this.types.clone();
+        this.starts = this.starts.clone();
+        this.ends = this.ends.clone();
+        this.nameIds = this.nameIds.clone();
+        this.ids = this.ids.clone();
+        this.tails = this.tails.clone();
+        this.names = this.names.copy();
+        this.isShared = false;
+    }
+
+    /**
+     * Copies whether tasks are done, if it is shared with a snapshot.
+     */
+    private void ownDone() {
+        if (this.isDoneShared) {
+            this.done = (BitSet) this.done.clone();
+            this.isDoneShared = false;
+        }
+    }
+
+    private void grow(int capacity) {
+        int grown = Math.max(capacity, this.types.length + (this.types.length >> 1));
+        this.types = Arrays.copyOf(this.types, grown);
+        this.starts = Arrays.copyOf(this.starts, grown);
+        this.ends = Arrays.copyOf(this.ends, grown);
+        this.nameIds = Arrays.copyOf(this.nameIds, grown);
+        this.ids = Arrays.copyOf(this.ids, grown);
+        this.tails = Arrays.copyOf(this.tails, grown);
+    }
+
+    private void checkIndex(int idx) {
+        if (idx < 0 || idx >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + idx + " out of bounds for length " + this.size);
+        }
+    }
+
+    private static int typeOrderOf(byte type) {
+        return type == 'D' ? 0 : type == 'E' ? 1 : 2;
+    }
+
+    private static byte typeOf(Task task) {
+        if (task instanceof ToDo) {
+            return 'T';
+        } else if (task instanceof Deadline) {
+            return 'D';
+        } else {
+            return 'E';
+        }
+    }
+}
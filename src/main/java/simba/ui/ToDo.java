@@ -26,6 +26,15 @@ public class ToDo extends Task {
         return "ToDo";
     }
 
+    /**
+     * Returns the position of ToDo tasks in the order tasks are listed.
+     *
+     * @return 2, as ToDo tasks are listed after Deadline and Event tasks.
+     */
+    int getTypeOrder() {
+        return 2;
+    }
+
     /**
      * Returns the start date of the task.
      * Since ToDo tasks do not have a specific start date, this method returns {@code null}.
@@ -66,6 +75,16 @@ public class ToDo extends Task {
         return this.getName().equals(objAsToDo.getName());
     }
 
+    /**
+     * Returns a hash code based on the name of the ToDo task.
+     *
+     * @return The hash code of the task.
+     */
+    @Override
+    public int hashCode() {
+        return this.getName().hashCode();
+    }
+
     /**
      * Returns a string representation of the ToDo task.
      * The string representation includes the task type and its completion status.
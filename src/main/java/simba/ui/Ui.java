@@ -1,7 +1,14 @@
 package simba.ui;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
 
 import exception.ui.DuplicateTaskException;
 import exception.ui.EmptyException;
@@ -14,18 +21,103 @@ import exception.ui.InvalidEventDateException;
  * interacting with the storage and task list.
  */
 class Ui {
-    private final Storage storage;
-    private final TaskList tasks;
+    private final Workspaces workspaces;
+    private final CommandRegistry commands;
+    private boolean isRunningScript;
 
     /**
-     * Initializes a new Ui instance with the specified storage and task list.
+     * Initializes a new Ui instance with the specified workspaces, starting in the default one.
      *
-     * @param storage The storage instance.
-     * @param tasks The task list instance.
+     * @param workspaces The workspaces holding the task lists.
      */
-    Ui(Storage storage, TaskList tasks) {
-        this.storage = storage;
-        this.tasks = tasks;
+    Ui(Workspaces workspaces) {
+        this.workspaces = workspaces;
+        this.commands = new CommandRegistry();
+        this.registerCommands();
+    }
+
+    /**
+     * Registers the handler of every command in {@link #readCommand(String)} by its first word.
+     * A new command only needs to be registered here.
+     */
+    private void registerCommands() {
+        this.commands.registerExact("hello", command -> this.helloAsString());
+        this.commands.registerExact("hi", command -> this.helloAsString());
+        this.commands.registerExact("help", command -> this.commandsAsString());
+        this.commands.registerExact("thanks", command -> this.npAsString());
+        this.commands.registerExact("list", command -> this.tasks().listAsString());
+        this.commands.registerExact("stats", command ->
+                this.tasks().statsAsString() + "\n" + this.workspaces.storage().statsAsString());
+        this.commands.register("list", command -> {
+            int[] page = new Parser(command).pageToList();
+            return this.tasks().listPageAsString(page[0], page[1]);
+        });
+        this.commands.register("mark", command -> this.tasks().markTasksAsString(this.positionsToUse(command)));
+        this.commands.register("unmark", command -> this.tasks().unmarkTasksAsString(this.positionsToUse(command)));
+        this.commands.register("delete", command -> this.tasks().deleteTasksAsString(this.positionsToUse(command)));
+        this.commands.register("find", command -> this.tasks().findTaskAsString(new Parser(command).wordToFind()));
+        this.commands.register("search", command ->
+                this.tasks().searchTaskAsString(new Parser(command).wordsToSearch()));
+        this.commands.register("due", command -> {
+            LocalDateTime[] range = new Parser(command).dateRange();
+            return this.tasks().dueTaskAsString(range[0], range[1]);
+        });
+        this.commands.register("overlaps", command -> {
+            LocalDateTime[] range = new Parser(command).dateRange();
+            return this.tasks().overlapTaskAsString(range[0], range[1]);
+        });
+        this.commands.register("todo", command -> this.tasks().addTaskAsString(new Parser(command).parseToDo()));
+        this.commands.register("deadline", command ->
+                this.tasks().addTaskAsString(new Parser(command).parseDeadline()));
+        this.commands.register("event", command -> this.tasks().addTaskAsString(new Parser(command).parseEvent()));
+        this.commands.register("run", command -> this.runBatched(command, new Parser(command).pathToUse("Script")));
+        this.commands.register("import", command ->
+                this.tasks().importTasksAsString(new Parser(command).pathToUse("Import")));
+        this.commands.register("export", command ->
+                this.tasks().exportTasksAsString(new Parser(command).pathToUse("Export")));
+        this.commands.registerExact("undo", command -> this.outsideScript(command).undoAsString());
+        this.commands.registerExact("redo", command -> this.outsideScript(command).redoAsString());
+        this.commands.registerExact("workspace", command -> this.workspaces.listAsString());
+        this.commands.register("workspace", command -> this.switchWorkspace(command, true));
+        this.commands.register("switch", command -> this.switchWorkspace(command, false));
+    }
+
+    /**
+     * Returns the task list of the current workspace, which commands act on.
+     *
+     * @return The task list.
+     * @throws IOException If loading it evicts another workspace whose changes cannot be written.
+     */
+    private TaskList tasks() throws IOException {
+        return this.workspaces.tasks();
+    }
+
+    /**
+     * Returns the task list of the current workspace for a command that cannot be run from a script,
+     * eg. "undo", which would otherwise undo commands run before the script while the script is one step itself.
+     *
+     * @param command The command.
+     * @return The task list.
+     * @throws InvalidCommandException If a script is running.
+     * @throws IOException If loading the task list evicts another workspace whose changes cannot be written.
+     */
+    private TaskList outsideScript(String command) throws InvalidCommandException, IOException {
+        if (this.isRunningScript) {
+            throw new InvalidCommandException(command);
+        }
+        return this.tasks();
+    }
+
+    /**
+     * Extracts the positions of the tasks selected by a "mark", "unmark" or "delete" command.
+     *
+     * @param command The command.
+     * @return The positions of the tasks, counting from 0.
+     * @throws InvalidCommandException If the command does not list task numbers, ranges or ids.
+     * @throws IOException If loading the task list evicts another workspace whose changes cannot be written.
+     */
+    private BitSet positionsToUse(String command) throws InvalidCommandException, IOException {
+        return this.tasks().positionsToUse(new Parser(command));
     }
 
     /**
@@ -40,24 +132,45 @@ class Ui {
 
     /**
      * Processes a user command and returns an appropriate response.
-     * It identifies the command type and performs corresponding actions such as adding, deleting,
+     * It looks up the handler registered for the first word of the command and runs it to perform
+     * the corresponding action such as adding, deleting,
      * marking, unmarking tasks, or displaying a list of tasks or available commands.
      * If the command is invalid or causes an error, an error message is returned.
+     * The changes made by the command are recorded so that they can be undone together.
      *
      * <p>The method handles the following commands:</p>
      * <ul>
      *     <li>"hello" or "hi" - Returns a greeting message.</li>
      *     <li>"help" - Displays a list of available commands.</li>
      *     <li>"list" - Shows the list of tasks in storage.</li>
+     *     <li>"list [page] --limit [count]" - Shows one page of the list of tasks,
+     *     where both the page and the limit are optional.</li>
      *     <li>"thanks" - Acknowledges the user's gratitude.</li>
-     *     <li>"mark [task number]" - Marks the specified task as done.</li>
-     *     <li>"unmark [task number]" - Marks the specified task as not done.</li>
-     *     <li>"delete [task number]" - Deletes the specified task from the list.</li>
+     *     <li>"mark [task numbers]" - Marks the specified tasks as done, where the tasks are given as numbers
+     *     and ranges of them or "#" and the id shown when the task was added, separated by commas,
+     *     eg. "3,7,9-20,#42", or as "all". Many tasks are changed as a batch with a single write to storage.</li>
+     *     <li>"unmark [task numbers]" - Marks the specified tasks as not done.</li>
+     *     <li>"delete [task numbers]" - Deletes the specified tasks from the list.</li>
      *     <li>"find [keyword]" - Searches for tasks containing the specified keyword.</li>
+     *     <li>"search [words]" - Searches for tasks containing all the specified words,
+     *     where a word ending in * matches any word starting with it.</li>
+     *     <li>"due [dd-mm-yyyy hhmm] [dd-mm-yyyy hhmm]" - Shows the deadlines due within the range.</li>
+     *     <li>"overlaps [dd-mm-yyyy hhmm] [dd-mm-yyyy hhmm]" - Shows the events overlapping the range
+     *     and the deadlines due within it.</li>
      *     <li>"todo [task description]" - Adds a new "ToDo" task to the list.</li>
      *     <li>"deadline [task description] /by [dd-mm-yyyy hhmm]" - Adds a new "Deadline" task to the list.</li>
      *     <li>"event [task description] /from [dd-mm-yyyy hhmm] /to [dd-mm-yyyy hhmm]"
      *     - Adds a new "Event" task to the list.</li>
+     *     <li>"run [file]" - Runs every command in the file, one per line, with a single write to storage.
+     *     If any line fails, none of the changes are kept.</li>
+     *     <li>"import [file]" - Adds every task in a text file in the form shown by "list" to the list,
+     *     skipping duplicates.</li>
+     *     <li>"export [file]" - Writes every task in the list to a text file in the form shown by "list".</li>
+     *     <li>"undo" - Undoes the changes made by the latest command, including a whole script.</li>
+     *     <li>"redo" - Redoes the changes made by the latest command undone.</li>
+     *     <li>"workspace" - Shows every workspace, marking the current one.</li>
+     *     <li>"workspace [name]" - Switches to the workspace of the specified name, creating it if needed.</li>
+     *     <li>"switch [name]" - Switches to an existing workspace of the specified name.</li>
      * </ul>
      *
      * <p>If the command is unrecognized or invalid, an error message will be returned.
@@ -69,46 +182,141 @@ class Ui {
      */
     String readCommand(String command) {
         assert command != null && !command.isEmpty() : "Command should not be null or empty";
-        Parser parser = new Parser(command);
         try {
-            String response = "";
-            if (command.equals("hello") || command.equals("hi")) {
-                response = this.helloAsString();
-            } else if (command.equals("help")) {
-                response = this.commandsAsString();
-            } else if (command.equals("list")) {
-                response = this.storage.fileToString();
-            } else if (command.equals("thanks")) {
-                response = this.npAsString();
-            } else if (this.isMark(command)) {
-                response = this.tasks.markTaskAsString(parser.idxToUse());
-            } else if (this.isUnmark(command)) {
-                response = this.tasks.unmarkTaskAsString(parser.idxToUse());
-            } else if (this.isDelete(command)) {
-                response = this.tasks.deleteTaskAsString(parser.idxToUse());
-            } else if (this.isFind(command)) {
-                response = this.tasks.findTaskAsString(parser.wordToFind());
-            } else if (this.isTask(command)) {
-                response = this.tasks.addTaskAsString(parser.taskToAdd());
+            TaskList tasks = this.tasks();
+            tasks.startUndoStep(command);
+            try {
+                return this.execute(command);
+            } finally {
+                tasks.finishUndoStep();
             }
-            this.storage.writeToFile(this.tasks.getList());
-            if (response.equals("")) {
-                throw new InvalidCommandException(command);
-            }
-            return response;
-        } catch (InvalidCommandException e) {
-            return e.getMessage();
-        } catch (EmptyException e) {
+        } catch (InvalidCommandException | EmptyException | DateTimeParseException | InvalidEventDateException
+                | DuplicateTaskException | IOException e) {
+            return errorAsString(e);
+        }
+    }
+
+    /**
+     * Runs the command registered for the first word of the specified command.
+     *
+     * @param command The user input command to be run.
+     * @return The response to the command.
+     */
+    private String execute(String command) throws EmptyException, InvalidEventDateException,
+            DuplicateTaskException, InvalidCommandException, IOException {
+        Command handler = this.commands.find(command);
+        if (handler == null) {
+            throw new InvalidCommandException(command);
+        }
+        return handler.execute(command);
+    }
+
+    /**
+     * Returns the message shown to the user when a command fails with the specified exception.
+     *
+     * @param e The exception the command failed with.
+     * @return A message describing the error.
+     */
+    private static String errorAsString(Exception e) {
+        if (e instanceof EmptyException) {
             return "Oh no! " + e.getMessage() + " description is wrong";
-        } catch (DateTimeParseException e) {
+        } else if (e instanceof DateTimeParseException) {
             return "Valid date and time should be written as DD-MM-YYYY HHMM";
-        } catch (InvalidEventDateException e) {
+        } else if (e instanceof InvalidEventDateException) {
             return "Start date should be before end date";
-        } catch (DuplicateTaskException e) {
+        } else if (e instanceof DuplicateTaskException) {
             return "This task already exists";
-        } catch (IOException e) {
+        } else if (e instanceof IOException) {
             return "Something went wrong with the file: " + e.getMessage();
+        } else {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Runs every command in a script, one per line, as a single transaction persisted in a single batch.
+     * Blank lines are skipped, and the script stops at a line reading "bye".
+     * A line that fails is reported with its line number, and the rest of the script still runs so that every
+     * failing line is reported, but the changes of the whole script are then rolled back and nothing is written.
+     * Scripts cannot run other scripts, switch workspaces, or undo and redo, and the whole script is undone at once.
+     *
+     * @param command The "run" command.
+     * @param script The path of the script.
+     * @return A summary of the number of commands run, how fast they ran, and the lines that failed.
+     * @throws InvalidCommandException If a script is already running.
+     * @throws IOException If the script cannot be read or the changes cannot be written.
+     */
+    private String runBatched(String command, Path script) throws InvalidCommandException, IOException {
+        if (this.isRunningScript) {
+            throw new InvalidCommandException(command);
+        }
+        ArrayList<String> errors = new ArrayList<>();
+        int count = 0;
+        long start = System.nanoTime();
+        Storage storage = this.workspaces.storage();
+        TaskList tasks = this.workspaces.tasks();
+        this.isRunningScript = true;
+        boolean isCommitted = false;
+        storage.beginBatch();
+        try (BufferedReader reader = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null && !line.equals("bye"); line = reader.readLine()) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                count++;
+                try {
+                    this.execute(line);
+                } catch (InvalidCommandException | EmptyException | DateTimeParseException
+                        | InvalidEventDateException | DuplicateTaskException | IOException e) {
+                    errors.add("Line " + lineNumber + ": " + errorAsString(e));
+                } catch (RuntimeException e) {
+                    errors.add("Line " + lineNumber + ": Something went wrong: " + e);
+                }
+            }
+            isCommitted = errors.isEmpty();
+        } finally {
+            this.isRunningScript = false;
+            if (isCommitted) {
+                storage.endBatch(tasks.getList());
+            } else {
+                try {
+                    tasks.rollBackUndoStep();
+                } finally {
+                    storage.discardBatch(tasks.getList());
+                }
+            }
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        StringBuilder result = new StringBuilder("Ran ").append(count).append(" command(s) from ").append(script)
+                .append(" in ").append(millis).append(" ms (").append(count * 1000L / millis).append(" commands/s)");
+        if (!errors.isEmpty()) {
+            result.append("\n").append(errors.size()).append(" line(s) failed, so no changes were made:");
+            for (String error : errors) {
+                result.append("\n").append(error);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Switches to the workspace named in the specified command.
+     * Workspaces cannot be switched while a script is running, as its changes are batched in the current one.
+     *
+     * @param command The "workspace" or "switch" command.
+     * @param isCreating Whether to create the workspace if it does not exist yet.
+     * @return A message with the workspace switched to, or a message if it does not exist.
+     * @throws InvalidCommandException If a script is running or the name is not valid.
+     * @throws EmptyException If no name is given.
+     * @throws IOException If the workspace cannot be created, or another workspace cannot be evicted.
+     */
+    private String switchWorkspace(String command, boolean isCreating) throws InvalidCommandException,
+            EmptyException, IOException {
+        if (this.isRunningScript) {
+            throw new InvalidCommandException(command);
         }
+        return this.workspaces.switchTo(new Parser(command).workspaceToUse(), isCreating);
     }
 
     /**
@@ -129,12 +337,21 @@ class Ui {
         return "Here are the list of commands:\n"
                 + "\t- hello / hi\n"
                 + "\t- list\n"
+                + "\t- list [page] --limit [tasks per page]\n"
                 + "\t- todo [task description]\n"
                 + "\t- deadline [task description] /by [dd-mm-yyyy hhmm]\n"
                 + "\t- event [task description] /from [dd-mm-yyyy hhmm] /to [dd-mm-yyyy hhmm]\n"
-                + "\t- mark [task number] / unmark [task number]\n"
-                + "\t- delete [task number]\n"
+                + "\t- mark [task numbers] / unmark [task numbers]\n"
+                + "\t- delete [task numbers], eg. 3,7,9-20,#42 or all\n"
                 + "\t- find [keyword in task]\n"
+                + "\t- search [words in task, word* for prefix]\n"
+                + "\t- due [dd-mm-yyyy hhmm] [dd-mm-yyyy hhmm]\n"
+                + "\t- overlaps [dd-mm-yyyy hhmm] [dd-mm-yyyy hhmm]\n"
+                + "\t- run [file of commands]\n"
+                + "\t- import [file of tasks] / export [file of tasks]\n"
+                + "\t- undo / redo\n"
+                + "\t- workspace / workspace [name] / switch [name]\n"
+                + "\t- stats\n"
                 + "\t- bye";
     }
 
@@ -146,83 +363,4 @@ class Ui {
     private String npAsString() {
         return "No problem!";
     }
-
-    /**
-     * Checks if the command is a "mark" command.
-     *
-     * @param command The command string to check.
-     * @return True if the command starts with "mark ", false otherwise.
-     */
-    private boolean isMark(String command) {
-        if (command.length() > 4) {
-            boolean isMark = command.substring(0, 5).equals("mark ");
-            return isMark;
-        }
-        return false;
-    }
-
-    /**
-     * Checks if the command is an "unmark" command.
-     *
-     * @param command The command string to check.
-     * @return True if the command starts with "unmark ", false otherwise.
-     */
-    private boolean isUnmark(String command) {
-        if (command.length() > 6) {
-            boolean isUnmark = command.substring(0, 7).equals("unmark ");
-            return isUnmark;
-        }
-        return false;
-    }
-
-    /**
-     * Checks if the command is a "delete" command.
-     *
-     * @param command The command string to check.
-     * @return True if the command starts with "delete ", false otherwise.
-     */
-    private boolean isDelete(String command) {
-        if (command.length() > 6) {
-            boolean isDelete = command.substring(0, 7).equals("delete ");
-            return isDelete;
-        }
-        return false;
-    }
-
-    /**
-     * Checks if the command is a "find" command.
-     *
-     * @param command The command string to check.
-     * @return True if the command starts with "find ", false otherwise.
-     */
-    private boolean isFind(String command) {
-        if (command.length() > 4) {
-            boolean isFind = command.substring(0, 5).equals("find ");
-            return isFind;
-        }
-        return false;
-    }
-
-    /**
-     * Checks if the command is a task-related command (todo, deadline, or event).
-     *
-     * @param command The command string to check.
-     * @return True if the command starts with "todo ", "deadline ", or "event ", false otherwise.
-     */
-    private boolean isTask(String command) {
-        boolean isDeadline = false;
-        boolean isEvent = false;
-        boolean isToDo = false;
-        if (command.length() > 4) {
-            isToDo = command.substring(0, 5).equals("todo ");
-            if (command.length() > 5) {
-                isEvent = command.substring(0, 6).equals("event ");
-                if (command.length() > 8) {
-                    isDeadline = command.substring(0, 9).equals("deadline ");
-                }
-            }
-        }
-        return isDeadline || isEvent || isToDo;
-    }
-
 }
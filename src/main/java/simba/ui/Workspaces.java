@@ -0,0 +1,227 @@
+package simba.ui;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The named task lists kept by the user, eg. one per project, each persisted through its own {@link Storage}.
+ * The default workspace, {@link #DEFAULT}, is stored at the base path, eg. {@code simba.txt},
+ * and every other workspace next to it, eg. {@code simba-work.txt} for the workspace "work".
+ *
+ * <p>A workspace is only loaded the first time it is used, so startup does not depend on how many workspaces
+ * there are, and the files on disk are only listed when the user asks for them. At most {@code capacity}
+ * workspaces are kept in memory, and using another one evicts the one used least recently,
+ * whose changes are written and whose storage is closed first.</p>
+ */
+class Workspaces {
+    static final String DEFAULT = "main";
+
+    private final Path basePath;
+    private final String stem;
+    private final String extension;
+    private final Function<String, Storage> storages;
+    private final int capacity;
+    private final LinkedHashMap<String, Workspace> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private String current = DEFAULT;
+
+    /**
+     * A workspace held in memory, with the storage its task list is persisted through.
+     */
+    private static class Workspace {
+        private final Storage storage;
+        private final TaskList tasks;
+
+        private Workspace(Storage storage) throws IOException {
+            this.storage = storage;
+            this.tasks = new TaskList(storage);
+        }
+    }
+
+    /**
+     * Initializes the workspaces stored next to the specified base path, starting in the default workspace.
+     *
+     * @param basePath The path of the default workspace, eg. {@code simba.txt}.
+     * @param storages Creates the storage of a workspace from the path of its file.
+     * @param capacity The number of workspaces kept in memory.
+     */
+    Workspaces(Path basePath, Function<String, Storage> storages, int capacity) {
+        assert capacity > 0 : "At least the current workspace should be kept in memory";
+        this.basePath = basePath;
+        String fileName = basePath.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        this.stem = dot > 0 ? fileName.substring(0, dot) : fileName;
+        this.extension = dot > 0 ? fileName.substring(dot) : "";
+        this.storages = storages;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the task list of the current workspace, loading it if it is not in memory.
+     *
+     * @return The task list.
+     * @throws IOException If it cannot be read, or loading it evicts another workspace whose changes cannot be written.
+     */
+    TaskList tasks() throws IOException {
+        return this.load(this.current).tasks;
+    }
+
+    /**
+     * Returns the storage of the current workspace, loading it if it is not in memory.
+     *
+     * @return The storage.
+     * @throws IOException If it cannot be read, or loading it evicts another workspace whose changes cannot be written.
+     */
+    Storage storage() throws IOException {
+        return this.load(this.current).storage;
+    }
+
+    /**
+     * Returns the name of the current workspace.
+     *
+     * @return The name of the current workspace.
+     */
+    String current() {
+        return this.current;
+    }
+
+    /**
+     * Makes the specified workspace the current one, loading it if it is not in memory.
+     *
+     * @param name       The name of the workspace.
+     * @param isCreating Whether to create the workspace if it does not exist yet.
+     * @return A message with the workspace switched to, or a message if it does not exist.
+     * @throws IOException If the workspace cannot be created, or another workspace cannot be evicted.
+     */
+    String switchTo(String name, boolean isCreating) throws IOException {
+        boolean isExisting = this.exists(name);
+        if (!isExisting && !isCreating) {
+            return "Workspace of this name does not exist";
+        }
+        Workspace workspace = this.load(name);
+        this.current = name;
+        if (!isExisting) {
+            workspace.storage.writeToFile(workspace.tasks.getList());
+            return "Created workspace " + name + "\nNow you are in workspace " + name;
+        }
+        String warning = workspace.storage.takeRecoveryWarning();
+        return "Now you are in workspace " + name + " with " + workspace.tasks.getList().size() + " task(s)"
+                + (warning.isEmpty() ? "" : "\n" + warning);
+    }
+
+    /**
+     * Returns every workspace on disk or in memory, marking the current one and those loaded in memory.
+     *
+     * @return The workspaces, one per line, sorted by name.
+     * @throws IOException If the directory of the workspaces cannot be listed.
+     */
+    String listAsString() throws IOException {
+        TreeSet<String> names = new TreeSet<>(this.loaded.keySet());
+        names.add(this.current);
+        Path dir = this.basePath.toAbsolutePath().getParent();
+        if (this.hasFiles(DEFAULT)) {
+            names.add(DEFAULT);
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(file -> this.nameOf(file.getFileName().toString()))
+                    .filter(name -> name != null)
+                    .forEach(names::add);
+        }
+
+        StringBuilder result = new StringBuilder("Here are your workspaces:");
+        for (String name : names) {
+            result.append("\n").append(name.equals(this.current) ? "* " : "  ").append(name);
+            Workspace workspace = this.loaded.get(name);
+            if (workspace != null) {
+                result.append(" (").append(workspace.tasks.getList().size()).append(" task(s))");
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Writes the changes of every workspace in memory and closes their storage, eg. before the application exits.
+     *
+     * @throws IOException If the changes of any workspace cannot be written.
+     */
+    void close() throws IOException {
+        IOException failure = null;
+        for (Workspace workspace : this.loaded.values()) {
+            try {
+                workspace.storage.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        this.loaded.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Workspace load(String name) throws IOException {
+        Workspace workspace = this.loaded.get(name);
+        if (workspace != null) {
+            return workspace;
+        }
+        workspace = new Workspace(this.storages.apply(this.pathOf(name).toString()));
+        this.loaded.put(name, workspace);
+        this.evict(name);
+        return workspace;
+    }
+
+    private void evict(String keep) throws IOException {
+        Iterator<Map.Entry<String, Workspace>> eldest = this.loaded.entrySet().iterator();
+        while (this.loaded.size() > this.capacity && eldest.hasNext()) {
+            Map.Entry<String, Workspace> entry = eldest.next();
+            if (entry.getKey().equals(keep) || entry.getKey().equals(this.current)) {
+                continue;
+            }
+            entry.getValue().storage.close();
+            eldest.remove();
+        }
+    }
+
+    private boolean exists(String name) {
+        return name.equals(this.current) || this.loaded.containsKey(name) || this.hasFiles(name);
+    }
+
+    private boolean hasFiles(String name) {
+        String path = this.pathOf(name).toString();
+        return Files.exists(Path.of(path)) || Files.exists(Path.of(path + ".bin"))
+                || Files.exists(Path.of(path + ".bin.bak")) || Files.exists(Path.of(path + ".journal"));
+    }
+
+    private Path pathOf(String name) {
+        if (name.equals(DEFAULT)) {
+            return this.basePath;
+        }
+        return this.basePath.resolveSibling(this.stem + "-" + name + this.extension);
+    }
+
+    /**
+     * Returns the name of the workspace a file belongs to, eg. "work" for {@code simba-work.txt.bin}.
+     */
+    private String nameOf(String fileName) {
+        String prefix = this.stem + "-";
+        if (!fileName.startsWith(prefix)) {
+            return null;
+        }
+        int end = fileName.indexOf(this.extension, prefix.length());
+        if (end <= prefix.length()) {
+            return null;
+        }
+        String name = fileName.substring(prefix.length(), end);
+        String suffix = fileName.substring(end + this.extension.length());
+        if (!name.matches("[a-z0-9_-]+") || !(suffix.isEmpty() || suffix.startsWith("."))) {
+            return null;
+        }
+        return name;
+    }
+}
@@ -0,0 +1,80 @@
+package main.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+public class ServerTest {
+    private int count;
+
+    @Test
+    public void serve_pipelinedCommandsFromManyClients_answeredInOrderOneAtATime() throws Exception {
+        Server server = new Server(command -> command.equals("dots") ? ".\n..a\nb" : command + " " + ++count, 4);
+        ServerSocketChannel listener = ServerSocketChannel.open()
+                .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        SocketAddress address = listener.getLocalAddress();
+        Thread serving = new Thread(() -> {
+            try {
+                server.serve(listener);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        serving.start();
+
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        List<Future<List<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String name = "c" + i;
+            responses.add(clients.submit(() -> {
+                try (SocketChannel channel = SocketChannel.open(address);
+                     BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+                     Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8)) {
+                    StringBuilder pipelined = new StringBuilder("dots\n");
+                    for (int j = 0; j < 500; j++) {
+                        pipelined.append(name).append('\n');
+                    }
+                    writer.write(pipelined.append("bye\n").toString());
+                    writer.flush();
+                    List<String> lines = new ArrayList<>();
+                    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                        lines.add(line);
+                    }
+                    return lines;
+                }
+            }));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            List<String> lines = responses.get(i).get();
+            assertEquals(List.of("..", "...a", "b", "."), lines.subList(0, 4));
+            assertEquals(4 + 500 * 2, lines.size());
+            for (int j = 4; j < lines.size(); j += 2) {
+                assertEquals("c" + i, lines.get(j).split(" ")[0]);
+                assertEquals(".", lines.get(j + 1));
+            }
+        }
+        assertEquals(2000, count);
+
+        clients.shutdown();
+        listener.close();
+        serving.join();
+        server.close();
+    }
+}
@@ -0,0 +1,36 @@
+package simba.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class DateCodecTest {
+
+    @Test
+    public void formatAndParse_everyDayOfLeapCycle_sameAsFormatter() {
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 0, 0);
+        while (date.getYear() < 2029) {
+            String display = DateCodec.DISPLAY.format(date);
+            assertEquals(display, DateCodec.format(date));
+            assertEquals(date, DateCodec.parseDisplay(display));
+            assertEquals(date, DateCodec.parseInput(DateCodec.INPUT.format(date)));
+            date = date.plusHours(7).plusMinutes(13);
+        }
+    }
+
+    @Test
+    public void parse_outsideFastPath_sameAsFormatter() {
+        assertEquals(LocalDateTime.parse("31-02-2025 1000", DateCodec.INPUT), DateCodec.parseInput("31-02-2025 1000"));
+        assertEquals(LocalDateTime.of(2025, 2, 28, 10, 0), DateCodec.parseInput("31-02-2025 1000"));
+        assertThrows(DateTimeParseException.class, () -> DateCodec.parseInput("07-02-2025 2460"));
+        assertThrows(DateTimeParseException.class, () -> DateCodec.parseInput("7-02-2025 1000"));
+        assertThrows(DateTimeParseException.class, () -> DateCodec.parseInput("07/02/2025 1000"));
+        assertThrows(DateTimeParseException.class, () -> DateCodec.parseDisplay("07 XYZ 2025 10:00"));
+        assertEquals(DateCodec.DISPLAY.format(LocalDateTime.of(12025, 2, 7, 10, 0)),
+                DateCodec.format(LocalDateTime.of(12025, 2, 7, 10, 0)));
+    }
+}
@@ -1,20 +1,90 @@
 package simba.ui;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.BitSet;
 
 import org.junit.jupiter.api.Test;
 
+import exception.ui.EmptyException;
+import exception.ui.InvalidCommandException;
+
 public class SimbaTest {
 
     @Test
-    public void parserTest1() {
+    public void parserTest1() throws Exception {
+        TaskStore tasks = new TaskStore();
+        tasks.add(0, new ToDo("borrow book"));
         Parser parser1 = new Parser("delete 1");
-        assertEquals(1, parser1.idxToUse());
+        assertEquals(0, parser1.positionsToUse(tasks).nextSetBit(0));
     }
 
     @Test
-    public void parserTest2() {
+    public void parserTest2() throws Exception {
+        TaskStore tasks = new TaskStore();
+        tasks.add(0, new ToDo("borrow book"));
+        tasks.add(1, new ToDo("return book"));
         Parser parser2 = new Parser("delete 2");
-        assertEquals(2, parser2.idxToUse());
+        assertEquals(1, parser2.positionsToUse(tasks).nextSetBit(0));
+        assertEquals(1, parser2.positionsToUse(tasks).cardinality());
+    }
+
+    @Test
+    public void parserTest3() throws Exception {
+        assertArrayEquals(new int[] {2, Parser.PAGE_SIZE}, new Parser("list 2").pageToList());
+        assertArrayEquals(new int[] {1, 20}, new Parser("list --limit 20").pageToList());
+        assertArrayEquals(new int[] {3, 10}, new Parser("list 3 --limit 10").pageToList());
+        assertThrows(InvalidCommandException.class, () -> new Parser("list 0").pageToList());
+        assertThrows(InvalidCommandException.class, () -> new Parser("list two").pageToList());
+    }
+
+    @Test
+    public void parserTest4() throws Exception {
+        TaskStore tasks = new TaskStore();
+        for (int i = 0; i < 30; i++) {
+            tasks.add(tasks.size(), new ToDo("task " + i));
+        }
+        BitSet expected = new BitSet();
+        expected.set(2);
+        expected.set(6);
+        expected.set(8, 20);
+        assertEquals(expected, new Parser("delete 3,7,9-20").positionsToUse(tasks));
+        assertEquals(11, new Parser("mark 12").positionsToUse(tasks).nextSetBit(0));
+        assertEquals(30, new Parser("unmark all").positionsToUse(tasks).cardinality());
+        assertEquals(31, new Parser("mark 1-2000000000").positionsToUse(tasks).length());
+        assertThrows(InvalidCommandException.class, () -> new Parser("mark 0").positionsToUse(tasks));
+        assertThrows(InvalidCommandException.class, () -> new Parser("mark 5-3").positionsToUse(tasks));
+        assertThrows(InvalidCommandException.class, () -> new Parser("mark 1,,2").positionsToUse(tasks));
+        assertThrows(InvalidCommandException.class, () -> new Parser("mark one").positionsToUse(tasks));
+    }
+
+    @Test
+    public void parserTest5() throws Exception {
+        TaskStore tasks = new TaskStore();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(0, new ToDo("task " + i));
+        }
+        assertEquals(4, new Parser("mark #1").positionsToUse(tasks).nextSetBit(0));
+        assertEquals(5, new Parser("mark #9").positionsToUse(tasks).nextSetBit(0));
+        tasks.remove(0);
+        tasks.add(2, new ToDo("task 5"));
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        expected.set(4);
+        assertEquals(expected, new Parser("delete #4, #6, 5").positionsToUse(tasks));
+        assertThrows(InvalidCommandException.class, () -> new Parser("mark #x").positionsToUse(tasks));
+    }
+
+    @Test
+    public void parserTest6() throws Exception {
+        assertEquals("[D] [ ] buy eggs  (by: 07 Feb 2025 18:00)",
+                new Parser("deadline buy eggs /by 07-02-2025 1800").parseDeadline().toString());
+        assertEquals("[E] [ ] party  (from: 07 Feb 2025 18:00 to: 07 Feb 2025 20:00)",
+                new Parser("event party /from 07-02-2025 1800 /to 07-02-2025 2000").parseEvent().toString());
+        assertThrows(EmptyException.class, () -> new Parser("deadline buy eggs").parseDeadline());
+        assertThrows(EmptyException.class, () -> new Parser("event party /from 07-02-2025 1800").parseEvent());
     }
 }
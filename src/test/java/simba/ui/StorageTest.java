@@ -0,0 +1,242 @@
+package simba.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class StorageTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void readFile_journaledChanges_replayedOverSnapshot() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        TaskList tasks = new TaskList(new Storage(path));
+        tasks.addTaskAsString(new ToDo("borrow book"));
+        tasks.addTaskAsString(new Deadline("buy eggs", LocalDateTime.of(2025, 2, 7, 18, 0)));
+        tasks.addTaskAsString(new ToDo("return book"));
+        tasks.markTaskAsString(3);
+        tasks.deleteTaskAsString(2);
+
+        assertFalse(Files.exists(dir.resolve("simba.txt.bin")));
+        TaskList reloaded = new TaskList(new Storage(path));
+        assertEquals(tasks.listAsString(), reloaded.listAsString());
+        assertTrue(Files.exists(dir.resolve("simba.txt.bin")));
+        assertFalse(Files.exists(dir.resolve("simba.txt.journal")));
+    }
+
+    @Test
+    public void readFile_journalAndSnapshot_idsKeptAndNotReused() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        TaskList tasks = new TaskList(new Storage(path));
+        tasks.addTaskAsString(new ToDo("borrow book"));
+        tasks.addTaskAsString(new ToDo("return book"));
+        tasks.addTaskAsString(new ToDo("read book"));
+        tasks.deleteTaskAsString(2);
+
+        TaskStore replayed = new Storage(path).readFile();
+        assertEquals(1, replayed.idAt(0));
+        assertEquals(2, replayed.idAt(1));
+        assertEquals(1, replayed.positionOf(2));
+        assertEquals(-1, replayed.positionOf(3));
+        assertEquals(4, replayed.nextId());
+
+        TaskList reloaded = new TaskList(new Storage(path));
+        assertTrue(reloaded.addTaskAsString(new ToDo("lend book")).startsWith("Added task #4:"));
+        TaskStore snapshot = SnapshotCodec.decode(SnapshotCodec.encode(reloaded.getList()));
+        assertEquals(Arrays.toString(new int[] {1, 4, 2}), Arrays.toString(
+                new int[] {snapshot.idAt(0), snapshot.idAt(1), snapshot.idAt(2)}));
+        assertEquals(5, snapshot.nextId());
+    }
+
+    @Test
+    public void readFile_textFile_migratedToSnapshot() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        Files.writeString(dir.resolve("simba.txt"), "1. [T] [X] borrow book\n"
+                + "2. [D] [ ] buy eggs (by: 07 Feb 2025 18:00)\n"
+                + "3. [E] [ ] dance (from: 07 Feb 2025 19:00 to: 07 Feb 2025 22:00)\n");
+
+        TaskList tasks = new TaskList(new Storage(path));
+        Files.delete(dir.resolve("simba.txt"));
+        TaskList reloaded = new TaskList(new Storage(path));
+        assertEquals(3, reloaded.getList().size());
+        assertEquals(tasks.listAsString(), reloaded.listAsString());
+
+        Storage storage = new Storage(path);
+        storage.exportToText(reloaded.getList(), dir.resolve("simba.txt"));
+        assertEquals(tasks.listAsString(), Files.readString(dir.resolve("simba.txt")));
+    }
+
+    @Test
+    public void readFile_tornRecord_ignored() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        TaskList tasks = new TaskList(new Storage(path));
+        tasks.addTaskAsString(new ToDo("borrow book"));
+        Files.writeString(dir.resolve("simba.txt.journal"), "A [T] [ ] return bo", StandardOpenOption.APPEND);
+
+        TaskList reloaded = new TaskList(new Storage(path));
+        assertEquals("1. [T] [ ] borrow book\n", reloaded.listAsString());
+    }
+
+    @Test
+    public void commit_deferred_writtenOnlyOnFlush() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        Storage storage = new Storage(path, 3_600_000, 1000);
+        TaskList tasks = new TaskList(storage);
+        tasks.addTaskAsString(new ToDo("borrow book"));
+        tasks.addTaskAsString(new ToDo("return book"));
+        tasks.markTaskAsString(1);
+
+        assertFalse(Files.exists(dir.resolve("simba.txt.bin")));
+        assertFalse(Files.exists(dir.resolve("simba.txt.journal")));
+        storage.flush();
+        assertEquals(tasks.listAsString(), new TaskList(new Storage(path)).listAsString());
+        assertTrue(storage.statsAsString().contains("Changes: 3, written in 1 flush(es)"));
+    }
+
+    @Test
+    public void commit_deferredMutationLimit_flushedInBackground() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        Storage storage = new Storage(path, 3_600_000, 2);
+        TaskList tasks = new TaskList(storage);
+        tasks.addTaskAsString(new ToDo("borrow book"));
+        tasks.addTaskAsString(new ToDo("return book"));
+
+        for (int i = 0; i < 500 && !Files.exists(dir.resolve("simba.txt.bin")); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(tasks.listAsString(), new TaskList(new Storage(path)).listAsString());
+    }
+
+    @Test
+    public void flush_writeInProgress_listNotHeldWhileWaiting() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        Flusher flusher = new Flusher(3_600_000, 1000, snapshot -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            written.add(SnapshotCodec.decode(snapshot).size());
+        });
+        TaskStore list = new TaskStore();
+        list.add(0, new ToDo("borrow book"));
+        flusher.markDirty(list);
+        flusher.flushSoon();
+        writing.await();
+
+        synchronized (list) {
+            list.add(1, new ToDo("return book"));
+        }
+        flusher.markDirty(list);
+        Thread waiting = new Thread(() -> {
+            try {
+                flusher.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        waiting.start();
+        Thread.sleep(50);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            synchronized (list) {
+                list.add(2, new ToDo("read book"));
+            }
+        });
+        flusher.markDirty(list);
+
+        release.countDown();
+        waiting.join();
+        flusher.close();
+        assertEquals(1, written.get(0));
+        assertEquals(3, written.get(written.size() - 1));
+    }
+
+    @Test
+    public void rewrite_deferredImportDuringBackgroundFlushes_importWrittenLast() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        Storage storage = new Storage(path, 1, 1000);
+        TaskList tasks = new TaskList(storage);
+        StringBuilder file = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            tasks.addTaskAsString(new ToDo("task " + i));
+            file.append(i + 1).append(". [T] [ ] imported ").append(i).append("\n");
+        }
+        Files.writeString(dir.resolve("import.txt"), file);
+
+        tasks.importTasksAsString(dir.resolve("import.txt"));
+        storage.flush();
+        assertEquals(tasks.listAsString(), new TaskList(new Storage(path)).listAsString());
+        Thread.sleep(50);
+        assertEquals(tasks.listAsString(), new TaskList(new Storage(path)).listAsString());
+        storage.close();
+    }
+
+    @Test
+    public void writeToFile_afterLoadingSnapshot_snapshotReplaced() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        new TaskList(new Storage(path, false)).addTaskAsString(new ToDo("borrow book"));
+
+        TaskList reloaded = new TaskList(new Storage(path, false));
+        reloaded.addTaskAsString(new ToDo("return book"));
+        assertTrue(Files.exists(dir.resolve("simba.txt.bin.bak")));
+        assertEquals("1. [T] [ ] borrow book\n2. [T] [ ] return book\n",
+                new TaskList(new Storage(path, false)).listAsString());
+    }
+
+    @Test
+    public void rewrite_unfinishedCompaction_foldingJournalDiscarded() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        TaskList tasks = new TaskList(new Storage(path));
+        tasks.addTaskAsString(new ToDo("borrow book"));
+        Journal folding = new Journal(dir.resolve("simba.txt.journal.old"));
+        folding.append(Journal.ADD, new ToDo("stale task"));
+        folding.append(Journal.DELETE, new ToDo("borrow book"));
+        folding.close();
+        Files.writeString(dir.resolve("import.txt"), "1. [T] [ ] read book\n");
+
+        tasks.importTasksAsString(dir.resolve("import.txt"));
+        assertFalse(Files.exists(dir.resolve("simba.txt.journal.old")));
+        assertEquals("1. [T] [ ] borrow book\n2. [T] [ ] read book\n",
+                new TaskList(new Storage(path)).listAsString());
+    }
+
+    @Test
+    public void readFile_damagedSnapshot_backupLoaded() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        TaskList tasks = new TaskList(new Storage(path, false));
+        tasks.addTaskAsString(new ToDo("borrow book"));
+        tasks.addTaskAsString(new ToDo("return book"));
+        byte[] snapshot = Files.readAllBytes(dir.resolve("simba.txt.bin"));
+        Files.write(dir.resolve("simba.txt.bin"), Arrays.copyOf(snapshot, snapshot.length - 3));
+
+        Storage storage = new Storage(path, false);
+        TaskList reloaded = new TaskList(storage);
+        assertEquals("1. [T] [ ] borrow book\n", reloaded.listAsString());
+        assertTrue(storage.takeRecoveryWarning().startsWith("The saved tasks were damaged"));
+        assertEquals("", storage.takeRecoveryWarning());
+        assertTrue(Files.exists(dir.resolve("simba.txt.bin.corrupt")));
+        Storage intact = new Storage(path, false);
+        assertEquals(reloaded.listAsString(), new TaskList(intact).listAsString());
+        assertEquals("", intact.takeRecoveryWarning());
+    }
+}
@@ -0,0 +1,219 @@
+package simba.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import exception.ui.DuplicateTaskException;
+
+public class TaskListTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 2, 7, 19, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 2, 7, 22, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void eventEquals_differentEndDate_notEqual() {
+        Event dance = new Event("dance", START, END);
+        assertEquals(dance, new Event("dance", START, END));
+        assertEquals(dance.hashCode(), new Event("dance", START, END).hashCode());
+        assertNotEquals(dance, new Event("dance", START, END.plusHours(1)));
+    }
+
+    @Test
+    public void addTaskAsString_duplicate_rejectedUntilDeletedAndAfterReload() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        TaskList tasks = new TaskList(new Storage(path));
+        tasks.addTaskAsString(new Event("dance", START, END));
+        tasks.addTaskAsString(new ToDo("borrow book"));
+        assertThrows(DuplicateTaskException.class, () -> tasks.addTaskAsString(new Event("dance", START, END)));
+
+        tasks.deleteTaskAsString(1);
+        tasks.addTaskAsString(new Event("dance", START, END));
+
+        TaskList reloaded = new TaskList(new Storage(path));
+        assertThrows(DuplicateTaskException.class, () -> reloaded.addTaskAsString(new ToDo("borrow book")));
+        assertThrows(DuplicateTaskException.class, () -> reloaded.addTaskAsString(new Event("dance", START, END)));
+    }
+
+    @Test
+    public void addTaskAsString_anyOrder_keptSorted() throws Exception {
+        TaskList tasks = new TaskList(new Storage(dir.resolve("simba.txt").toString()));
+        tasks.addTaskAsString(new ToDo("zumba"));
+        tasks.addTaskAsString(new Event("dance", START, END));
+        tasks.addTaskAsString(new Deadline("buy eggs", END));
+        tasks.addTaskAsString(new Event("ballet", START, END));
+        assertEquals("Added task #5:\n2. [D] [ ] buy milk (by: 07 Feb 2025 22:00)\n"
+                + "Now you have 5 task(s) in the list",
+                tasks.addTaskAsString(new Deadline("buy milk", END)));
+
+        ArrayList<Task> sorted = new ArrayList<>(tasks.getList());
+        sorted.sort(new TaskComparator());
+        assertEquals(sorted, tasks.getList());
+        assertEquals("ballet", tasks.getList().get(2).getName());
+    }
+
+    @Test
+    public void findAndSearch_afterDelete_matchIndexedTasks() throws Exception {
+        TaskList tasks = new TaskList(new Storage(dir.resolve("simba.txt").toString()));
+        tasks.addTaskAsString(new ToDo("pay rent"));
+        tasks.addTaskAsString(new ToDo("weekly report"));
+        tasks.addTaskAsString(new ToDo("report rent receipt"));
+        tasks.addTaskAsString(new Deadline("Pay tax", END));
+
+        assertEquals("Here are the matching task(s):\n2. [T] [ ] pay rent\n3. [T] [ ] report rent receipt\n",
+                tasks.findTaskAsString("ent"));
+        assertEquals("Here are the matching task(s):\n1. [D] [ ] Pay tax (by: 07 Feb 2025 22:00)\n"
+                + "2. [T] [ ] pay rent\n", tasks.searchTaskAsString("pay"));
+        assertEquals("Here are the matching task(s):\n3. [T] [ ] report rent receipt\n",
+                tasks.searchTaskAsString("re* rent receipt"));
+
+        tasks.deleteTaskAsString(2);
+        assertEquals("Here are the matching task(s):\n2. [T] [ ] report rent receipt\n",
+                tasks.findTaskAsString("rent"));
+        assertEquals("There are no matching tasks in the list", tasks.searchTaskAsString("pay rent"));
+    }
+
+    @Test
+    public void dueAndOverlaps_afterDelete_matchIndexedDates() throws Exception {
+        TaskList tasks = new TaskList(new Storage(dir.resolve("simba.txt").toString()));
+        tasks.addTaskAsString(new Deadline("buy eggs", START));
+        tasks.addTaskAsString(new Deadline("pay rent", START.plusDays(7)));
+        tasks.addTaskAsString(new Event("dance", START, END));
+        tasks.addTaskAsString(new Event("camp", START.minusDays(2), START.minusDays(1)));
+        tasks.addTaskAsString(new ToDo("borrow book"));
+
+        assertEquals("Here are the matching task(s):\n1. [D] [ ] buy eggs (by: 07 Feb 2025 19:00)\n",
+                tasks.dueTaskAsString(START.minusDays(1), START.plusDays(1)));
+        assertEquals("Here are the matching task(s):\n1. [D] [ ] buy eggs (by: 07 Feb 2025 19:00)\n"
+                + "4. [E] [ ] dance (from: 07 Feb 2025 19:00 to: 07 Feb 2025 22:00)\n",
+                tasks.overlapTaskAsString(START, START.plusHours(1)));
+        assertEquals("Here are the matching task(s):\n"
+                + "3. [E] [ ] camp (from: 05 Feb 2025 19:00 to: 06 Feb 2025 19:00)\n",
+                tasks.overlapTaskAsString(START.minusDays(1), START.minusHours(1)));
+
+        tasks.deleteTaskAsString(4);
+        assertEquals("There are no matching tasks in the list",
+                tasks.overlapTaskAsString(END.minusHours(1), END));
+    }
+
+    @Test
+    public void listAsString_afterChanges_renderedFromMemory() throws Exception {
+        TaskList tasks = new TaskList(new Storage(dir.resolve("simba.txt").toString()));
+        tasks.addTaskAsString(new ToDo("borrow book"));
+        tasks.addTaskAsString(new ToDo("return book"));
+        tasks.addTaskAsString(new Deadline("buy eggs", END));
+        assertEquals("1. [D] [ ] buy eggs (by: 07 Feb 2025 22:00)\n2. [T] [ ] borrow book\n"
+                + "3. [T] [ ] return book\n", tasks.listAsString());
+
+        tasks.markTaskAsString(2);
+        tasks.deleteTaskAsString(1);
+        assertEquals("1. [T] [X] borrow book\n2. [T] [ ] return book\n", tasks.listAsString());
+
+        assertEquals("2. [T] [ ] return book\nShowing task(s) 2 to 2 of 2", tasks.listPageAsString(2, 1));
+        assertEquals("Page of this number does not exist", tasks.listPageAsString(3, 1));
+    }
+
+    @Test
+    public void importTasksAsString_largeExport_parsedInChunksAndDeduplicated() throws Exception {
+        TaskList source = new TaskList(new Storage(dir.resolve("source.txt").toString()));
+        StringBuilder file = new StringBuilder("[T] [ ] unnumbered\r\nnot a task\n\n");
+        for (int i = 0; i < 3000; i++) {
+            file.append("[D] [X] deadline ").append(i).append("  (by: 07 Feb 2025 18:00)\n");
+            file.append("[E] [ ] event ").append(i).append(" (from: 07 Feb 2025 19:00 to: 07 Feb 2025 22:00)\n");
+        }
+        Files.writeString(dir.resolve("tasks.txt"), file);
+        assertEquals("Imported 6001 task(s), skipped 0 duplicate(s) and 1 unreadable line(s)\n"
+                + "Now you have 6001 task(s) in the list", source.importTasksAsString(dir.resolve("tasks.txt")));
+        source.exportTasksAsString(dir.resolve("export.txt"));
+
+        String path = dir.resolve("simba.txt").toString();
+        TaskList tasks = new TaskList(new Storage(path));
+        tasks.addTaskAsString(new ToDo("unnumbered"));
+        assertEquals("Imported 6000 task(s), skipped 1 duplicate(s) and 0 unreadable line(s)\n"
+                + "Now you have 6001 task(s) in the list", tasks.importTasksAsString(dir.resolve("export.txt")));
+        assertEquals(source.listAsString(), tasks.listAsString());
+        assertEquals(source.listAsString(), Files.readString(dir.resolve("export.txt")));
+
+        ArrayList<Task> sorted = new ArrayList<>(tasks.getList());
+        sorted.sort(new TaskComparator());
+        assertEquals(sorted, tasks.getList());
+        assertEquals(source.listAsString(), new TaskList(new Storage(path)).listAsString());
+    }
+
+    @Test
+    public void snapshot_concurrentWritersAndReaders_noLostUpdatesAndConsistentReads() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        Storage storage = new Storage(path, 1, 16);
+        TaskList tasks = new TaskList(storage);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            String writer = "writer " + w;
+            writers.add(threads.submit(() -> {
+                for (int i = 0; i < 250; i++) {
+                    tasks.addTaskAsString(new ToDo(writer + " task " + i));
+                }
+                return null;
+            }));
+        }
+        List<Future<Integer>> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(threads.submit(() -> {
+                long version = -1;
+                int reads = 0;
+                while (isWriting.get() || reads == 0) {
+                    TaskList.Snapshot snapshot = tasks.snapshot();
+                    TaskStore seen = snapshot.getTasks();
+                    assertTrue(snapshot.getVersion() >= version);
+                    assertEquals(snapshot.getVersion(), seen.size());
+                    HashSet<Integer> ids = new HashSet<>();
+                    for (int i = 0; i < seen.size(); i++) {
+                        assertTrue(ids.add(seen.idAt(i)));
+                    }
+                    String listing = tasks.listAsString();
+                    assertTrue(listing.equals("Task list is empty")
+                            || listing.split("\n").length >= seen.size());
+                    version = snapshot.getVersion();
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        isWriting.set(false);
+        for (Future<Integer> reader : readers) {
+            assertTrue(reader.get() > 0);
+        }
+        threads.shutdown();
+
+        TaskStore written = tasks.getList();
+        assertEquals(1000, written.size());
+        HashSet<Integer> ids = new HashSet<>();
+        for (int i = 0; i < written.size(); i++) {
+            ids.add(written.idAt(i));
+        }
+        assertEquals(1000, ids.size());
+        storage.close();
+        assertEquals(new ArrayList<>(written), new ArrayList<>(new Storage(path).readFile()));
+    }
+}
@@ -0,0 +1,286 @@
+package simba.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskStoreTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 2, 7, 18, 0);
+
+    @Test
+    public void addAndRemove_randomOperations_sameAsArrayList() {
+        Random random = new Random(7);
+        ArrayList<Task> expected = new ArrayList<>();
+        TaskStore store = new TaskStore();
+        for (int i = 0; i < 2000; i++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                int idx = random.nextInt(expected.size());
+                assertEquals(expected.remove(idx), store.remove(idx));
+            } else {
+                Task task = task(i, random);
+                int idx = random.nextInt(expected.size() + 1);
+                expected.add(idx, task);
+                store.add(idx, task);
+            }
+        }
+        assertEquals(expected, store);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), store.get(i).toString());
+        }
+    }
+
+    @Test
+    public void setDone_onlyChangesThatTask() {
+        TaskStore store = TaskStore.of(List.of(new ToDo("a"), new ToDo("b"), new ToDo("c")));
+        store.setDone(1, true);
+        store.add(0, new ToDo("z"));
+        assertTrue(store.isDone(2));
+        assertEquals("[X] b", store.get(2).toString().substring(4));
+        store.remove(0);
+        assertFalse(store.isDone(0));
+        assertTrue(store.isDone(1));
+    }
+
+    @Test
+    public void removeAt_randomPositions_sameAsRemovingOneByOne() {
+        Random random = new Random(11);
+        ArrayList<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            expected.add(task(i, random));
+        }
+        TaskStore store = TaskStore.of(expected);
+        BitSet positions = new BitSet();
+        for (int i = 0; i < expected.size(); i++) {
+            if (i % 3 == 0) {
+                store.setDone(i, true);
+                expected.get(i).makeDone();
+            }
+            if (random.nextInt(4) == 0) {
+                positions.set(i);
+            }
+        }
+        positions.set(0, 10);
+        positions.set(expected.size() - 1);
+        for (int i = positions.length() - 1; i >= 0; i = positions.previousSetBit(i - 1)) {
+            expected.remove(i);
+        }
+
+        store.removeAt(positions);
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), store.get(i).toString());
+        }
+    }
+
+    @Test
+    public void positionOf_interleavedChanges_sameAsScanningIds() {
+        Random random = new Random(13);
+        TaskStore store = new TaskStore();
+        for (int i = 0; i < 1000; i++) {
+            int op = random.nextInt(4);
+            if (op == 0 && store.size() > 0) {
+                store.remove(random.nextInt(store.size()));
+            } else if (op == 1 && store.size() > 0) {
+                BitSet positions = new BitSet();
+                positions.set(random.nextInt(store.size()));
+                positions.set(random.nextInt(store.size()));
+                store.removeAt(positions);
+            } else {
+                store.add(random.nextInt(store.size() + 1), task(i, random));
+            }
+            int id = 1 + random.nextInt(store.nextId());
+            int expected = -1;
+            for (int j = 0; j < store.size(); j++) {
+                if (store.idAt(j) == id) {
+                    expected = j;
+                }
+            }
+            assertEquals(expected, store.positionOf(id));
+        }
+    }
+
+    @Test
+    public void appendLineTo_interleavedChanges_sameAsToString() {
+        Random random = new Random(17);
+        TaskStore store = new TaskStore();
+        TaskStore snapshot = store.snapshot();
+        List<String> expectedSnapshot = Collections.emptyList();
+        for (int i = 0; i < 600; i++) {
+            int op = random.nextInt(6);
+            if (op == 0 && store.size() > 0) {
+                store.remove(random.nextInt(store.size()));
+            } else if (op == 1 && store.size() > 0) {
+                BitSet positions = new BitSet();
+                positions.set(random.nextInt(store.size()));
+                positions.set(random.nextInt(store.size()));
+                store.removeAt(positions);
+            } else if (op == 2 && store.size() > 0) {
+                int idx = random.nextInt(store.size());
+                store.setDone(idx, !store.isDone(idx));
+            } else if (op == 3 && store.size() > 0) {
+                store.set(random.nextInt(store.size()), task(i, random));
+            } else {
+                store.add(random.nextInt(store.size() + 1), task(i, random));
+            }
+            if (i % 50 == 0) {
+                snapshot = store.snapshot();
+                expectedSnapshot = new ArrayList<>();
+                for (Task task : snapshot) {
+                    expectedSnapshot.add(task.toString());
+                }
+            }
+            int idx = random.nextInt(store.size() + 1);
+            if (idx < store.size()) {
+                assertEquals(store.get(idx).toString(), store.appendLineTo(new StringBuilder(), idx).toString());
+            }
+        }
+        for (int i = 0; i < store.size(); i++) {
+            assertEquals(store.get(i).toString(), store.appendLineTo(new StringBuilder(), i).toString());
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            assertEquals(expectedSnapshot.get(i), snapshot.appendLineTo(new StringBuilder(), i).toString());
+        }
+    }
+
+    @Test
+    public void mergeSorted_duplicatesSkipped() {
+        TaskComparator order = new TaskComparator();
+        TaskStore store = TaskStore.of(List.of(new Deadline("buy eggs", START), new ToDo("borrow book")));
+        List<Task> added = store.mergeSorted(List.of(new Deadline("buy eggs", START),
+                new Event("dance", START, START.plusHours(2)), new ToDo("borrow book"), new ToDo("read"),
+                new ToDo("read")), order);
+
+        assertEquals(2, added.size());
+        assertEquals(List.of(new Deadline("buy eggs", START), new Event("dance", START, START.plusHours(2)),
+                new ToDo("borrow book"), new ToDo("read")), store);
+    }
+
+    @Test
+    public void encodeAndDecode_sameTasks() throws IOException {
+        Random random = new Random(11);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(task(i, random));
+        }
+        TaskStore store = TaskStore.of(tasks);
+        for (int i = 0; i < 100; i++) {
+            store.remove(random.nextInt(store.size()));
+        }
+
+        TaskStore decoded = SnapshotCodec.decode(SnapshotCodec.encode(store));
+        assertEquals(store.size(), decoded.size());
+        for (int i = 0; i < store.size(); i++) {
+            assertEquals(store.get(i).toString(), decoded.get(i).toString());
+        }
+    }
+
+    @Test
+    public void search_randomTasks_sameAsBinarySearch() {
+        TaskComparator order = new TaskComparator();
+        Random random = new Random(3);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            tasks.add(task(random.nextInt(100), random));
+        }
+        tasks.sort(order);
+        TaskStore store = TaskStore.of(tasks);
+        for (int i = 0; i < 200; i++) {
+            Task task = task(random.nextInt(150), random);
+            int expected = Collections.binarySearch(tasks, task, order);
+            int actual = store.search(task);
+            assertEquals(expected >= 0, actual >= 0);
+            assertEquals(expected >= 0 ? 0 : expected, actual >= 0 ? order.compare(store.get(actual), task) : actual);
+        }
+    }
+
+    @Test
+    public void namePool_repeatedNames_storedOnce() {
+        NamePool pool = new NamePool(true);
+        int first = pool.add("standup");
+        for (int i = 0; i < 99; i++) {
+            assertEquals(first, pool.add("standup"));
+        }
+        int other = pool.add("pay rent");
+        assertEquals("Names: 2 distinct, 15 byte(s) stored for 708 byte(s) of names (693 saved)",
+                pool.statsAsString());
+
+        pool.release(other);
+        assertEquals(-1, pool.find("pay rent"));
+        assertEquals(first, pool.find("standup"));
+        assertEquals("standup", pool.get(first));
+    }
+
+    @Test
+    public void namePool_manyNamesReleased_remainingNamesFound() {
+        for (boolean isInterning : new boolean[] {true, false}) {
+            NamePool pool = new NamePool(isInterning);
+            ArrayList<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                ids.add(pool.add("task " + i));
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                pool.release(ids.get(i));
+            }
+            for (int i = 1; i < 1000; i += 2) {
+                assertEquals("task " + i, pool.get(ids.get(i)));
+                assertEquals(isInterning ? ids.get(i) : -1, pool.find("task " + i));
+                assertEquals(-1, pool.find("task " + (i - 1)));
+            }
+        }
+    }
+
+    @Test
+    public void snapshot_storeChangedAfterwards_snapshotUnchanged() {
+        Random random = new Random(11);
+        TaskStore store = new TaskStore();
+        for (int i = 0; i < 100; i++) {
+            store.add(store.size(), task(i, random));
+        }
+        TaskStore snapshot = store.snapshot();
+        ArrayList<Task> expected = new ArrayList<>(snapshot);
+
+        store.setDone(0, !store.isDone(0));
+        store.remove(50);
+        store.add(10, new ToDo("added after the snapshot"));
+        TaskStore second = store.snapshot();
+        BitSet all = new BitSet();
+        all.set(0, 20);
+        store.setDone(all, true);
+        store.removeAt(all);
+
+        assertEquals(expected, new ArrayList<>(snapshot));
+        assertEquals(100, second.size());
+        assertEquals("added after the snapshot", second.get(10).getName());
+        assertEquals(80, store.size());
+        assertEquals(SnapshotCodec.encode(TaskStore.of(expected)), SnapshotCodec.encode(snapshot));
+    }
+
+    private static Task task(int i, Random random) {
+        Task task;
+        switch (random.nextInt(3)) {
+        case 0:
+            task = new ToDo("task " + i + " \u00e9");
+            break;
+        case 1:
+            task = new Deadline("task " + i, START.plusMinutes(i));
+            break;
+        default:
+            task = new Event("task " + i, START.plusMinutes(i), START.plusMinutes(i + 90));
+            break;
+        }
+        if (random.nextBoolean()) {
+            task.makeDone();
+        }
+        return task;
+    }
+}
@@ -0,0 +1,201 @@
+package simba.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class UiTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    public void readCommand_firstWord_dispatchedToRegisteredCommand() {
+        Ui ui = new Ui(new Workspaces(dir.resolve("simba.txt"), Storage::new, 4));
+
+        assertEquals("Hello! What would you like me to do today?", ui.readCommand("hi"));
+        assertEquals("Oh dear :( I don't understand you", ui.readCommand("hi there"));
+        assertEquals("Oh dear :( I don't understand you", ui.readCommand("mark"));
+        assertEquals("Oh dear :( I don't understand you", ui.readCommand("listing"));
+        assertEquals("No need to shout at me :( Only lowercase please", ui.readCommand("LIST"));
+        assertEquals("Oh no! ToDo description is wrong", ui.readCommand("todo "));
+        assertEquals("Added task #1:\n1. [T] [ ] borrow book\nNow you have 1 task(s) in the list",
+                ui.readCommand("todo borrow book"));
+        assertEquals("1. [T] [ ] borrow book\n", ui.readCommand("list"));
+        assertEquals("1. [T] [ ] borrow book\nShowing task(s) 1 to 1 of 1", ui.readCommand("list 1"));
+    }
+
+    @Test
+    public void readCommand_runScript_appliedWithOneFlush() throws Exception {
+        Path script = dir.resolve("script.txt");
+        Files.writeString(script, "todo borrow book\n\ndeadline buy eggs /by 07-02-2025 1800\nmark 2\n"
+                + "bye\ntodo never run\n");
+        String path = dir.resolve("simba.txt").toString();
+        Ui ui = new Ui(new Workspaces(dir.resolve("simba.txt"), Storage::new, 4));
+
+        String summary = ui.readCommand("run " + script);
+        assertTrue(summary.startsWith("Ran 3 command(s) from " + script + " in "), summary);
+        assertTrue(summary.endsWith("commands/s)"), summary);
+        assertFalse(Files.readString(dir.resolve("simba.txt.journal")).isEmpty());
+
+        assertEquals("1. [D] [ ] buy eggs  (by: 07 Feb 2025 18:00)\n2. [T] [X] borrow book\n",
+                new TaskList(new Storage(path)).listAsString());
+        assertEquals("Undone: run " + script + "\nNow you have 0 task(s) in the list", ui.readCommand("undo"));
+    }
+
+    @Test
+    public void readCommand_runScriptWithFailingLines_rolledBackAndErrorsReported() throws Exception {
+        Path script = dir.resolve("script.txt");
+        Files.writeString(script, "delete 2\ntodo read book\nmark 1\ntodo borrow book\nfly\nrun " + script + "\n");
+        String path = dir.resolve("simba.txt").toString();
+        Ui ui = new Ui(new Workspaces(dir.resolve("simba.txt"), Storage::new, 4));
+        ui.readCommand("todo borrow book");
+        ui.readCommand("todo return book");
+        String journal = Files.readString(dir.resolve("simba.txt.journal"));
+
+        String summary = ui.readCommand("run " + script);
+        assertTrue(summary.startsWith("Ran 6 command(s) from " + script + " in "), summary);
+        assertTrue(summary.endsWith("3 line(s) failed, so no changes were made:\n"
+                + "Line 4: This task already exists\n"
+                + "Line 5: Oh dear :( I don't understand you\nLine 6: Oh dear :( I don't understand you"), summary);
+
+        assertEquals("1. [T] [ ] borrow book\n2. [T] [ ] return book\n", ui.readCommand("list"));
+        assertEquals(journal, Files.readString(dir.resolve("simba.txt.journal")));
+        assertEquals(ui.readCommand("list"), new TaskList(new Storage(path)).listAsString());
+        assertEquals("Undone: todo return book\nNow you have 1 task(s) in the list", ui.readCommand("undo"));
+    }
+
+    @Test
+    public void readCommand_undoInScript_rejectedAndScriptUndoneAsOneStep() throws Exception {
+        Path script = dir.resolve("script.txt");
+        Files.writeString(script, "todo read book\nundo\nredo\n");
+        Ui ui = new Ui(new Workspaces(dir.resolve("simba.txt"), Storage::new, 4));
+        ui.readCommand("todo borrow book");
+
+        assertTrue(ui.readCommand("run " + script).endsWith("2 line(s) failed, so no changes were made:\n"
+                + "Line 2: Oh dear :( I don't understand you\nLine 3: Oh dear :( I don't understand you"));
+        assertEquals("1. [T] [ ] borrow book\n", ui.readCommand("list"));
+
+        Files.writeString(script, "todo read book\nmark 1\ntodo return book\n");
+        ui.readCommand("run " + script);
+        assertEquals("Undone: run " + script + "\nNow you have 1 task(s) in the list", ui.readCommand("undo"));
+        assertEquals("1. [T] [ ] borrow book\n", ui.readCommand("list"));
+        assertEquals("Redone: run " + script + "\nNow you have 3 task(s) in the list", ui.readCommand("redo"));
+    }
+
+    @Test
+    public void readCommand_runScriptImportingThenFailing_storageRewrittenBack() throws Exception {
+        Path imported = dir.resolve("import.txt");
+        Files.writeString(imported, "1. [T] [ ] read book\n");
+        Path script = dir.resolve("script.txt");
+        Files.writeString(script, "import " + imported + "\nfly\n");
+        String path = dir.resolve("simba.txt").toString();
+        Ui ui = new Ui(new Workspaces(dir.resolve("simba.txt"), Storage::new, 4));
+        ui.readCommand("todo borrow book");
+
+        assertTrue(ui.readCommand("run " + script).endsWith("Line 2: Oh dear :( I don't understand you"));
+        assertEquals("1. [T] [ ] borrow book\n", ui.readCommand("list"));
+        assertEquals("1. [T] [ ] borrow book\n", new TaskList(new Storage(path)).listAsString());
+    }
+
+    @Test
+    public void readCommand_bulkMarkAndDelete_journaledAsOneBatch() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        Ui ui = new Ui(new Workspaces(dir.resolve("simba.txt"), Storage::new, 4));
+        for (int i = 1; i <= 12; i++) {
+            ui.readCommand("todo task " + (char) ('a' + i));
+        }
+        long journaled = Files.size(dir.resolve("simba.txt.journal"));
+
+        assertEquals("Alright! 12 task(s) are done, 12 of them changed", ui.readCommand("mark all"));
+        assertEquals("Okay! 3 task(s) are not done, 3 of them changed", ui.readCommand("unmark 1-2,12"));
+        assertEquals("Task of this number does not exist", ui.readCommand("delete 10-13"));
+        assertEquals("Deleted 8 task(s)\nNow you have 4 task(s) in the list", ui.readCommand("delete 2,4-10"));
+        assertEquals("1. [T] [ ] task b\n2. [T] [X] task d\n3. [T] [X] task l\n4. [T] [ ] task m\n",
+                ui.readCommand("list"));
+        assertTrue(Files.size(dir.resolve("simba.txt.journal")) > journaled);
+        assertEquals(ui.readCommand("list"), new TaskList(new Storage(path)).listAsString());
+    }
+
+    @Test
+    public void readCommand_undoAndRedo_changesAndStorageRolledBack() throws Exception {
+        String path = dir.resolve("simba.txt").toString();
+        Ui ui = new Ui(new Workspaces(dir.resolve("simba.txt"), Storage::new, 4));
+        assertEquals("Nothing to undo", ui.readCommand("undo"));
+        ui.readCommand("todo borrow book");
+        ui.readCommand("todo read book");
+        ui.readCommand("mark 2");
+        ui.readCommand("delete all");
+        assertEquals("Task list is empty", ui.readCommand("list"));
+
+        assertEquals("Undone: delete all\nNow you have 2 task(s) in the list", ui.readCommand("undo"));
+        assertEquals("1. [T] [ ] borrow book\n2. [T] [X] read book\n", ui.readCommand("list"));
+        assertEquals("Undone: mark 2\nNow you have 2 task(s) in the list", ui.readCommand("undo"));
+        assertEquals("1. [T] [ ] borrow book\n2. [T] [ ] read book\n", ui.readCommand("list"));
+        assertEquals("Redone: mark 2\nNow you have 2 task(s) in the list", ui.readCommand("redo"));
+        assertEquals("Undone: mark 2\nNow you have 2 task(s) in the list", ui.readCommand("undo"));
+        assertEquals("Alright! This task is done:\n2. [T] [X] read book", ui.readCommand("mark #2"));
+        assertEquals("Nothing to redo", ui.readCommand("redo"));
+
+        assertEquals("Undone: mark #2\nNow you have 2 task(s) in the list", ui.readCommand("undo"));
+        assertEquals("Undone: todo read book\nNow you have 1 task(s) in the list", ui.readCommand("undo"));
+        assertEquals("Redone: todo read book\nNow you have 2 task(s) in the list", ui.readCommand("redo"));
+        assertEquals("Deleted task:\n2. [T] [ ] read book\nNow you have 1 task(s) in the list",
+                ui.readCommand("delete #2"));
+        assertEquals("1. [T] [ ] borrow book\n", new TaskList(new Storage(path)).listAsString());
+    }
+
+    @Test
+    public void readCommand_unreadableJournal_fileErrorReported() throws Exception {
+        Files.createDirectory(dir.resolve("simba.txt.journal"));
+        Ui ui = new Ui(new Workspaces(dir.resolve("simba.txt"), Storage::new, 4));
+        assertTrue(ui.readCommand("list").startsWith("Something went wrong with the file: "));
+    }
+
+    @Test
+    public void readCommand_undoMarkOfDoneTask_earlierCommandUndone() throws Exception {
+        Ui ui = new Ui(new Workspaces(dir.resolve("simba.txt"), Storage::new, 4));
+        ui.readCommand("todo borrow book");
+        ui.readCommand("mark 1");
+        assertEquals("Alright! This task is done:\n1. [T] [X] borrow book", ui.readCommand("mark 1"));
+        assertEquals("Okay! This task is not done:\n1. [T] [ ] borrow book", ui.readCommand("unmark 1"));
+        assertEquals("Okay! This task is not done:\n1. [T] [ ] borrow book", ui.readCommand("unmark 1"));
+
+        assertEquals("Undone: unmark 1\nNow you have 1 task(s) in the list", ui.readCommand("undo"));
+        assertEquals("1. [T] [X] borrow book\n", ui.readCommand("list"));
+        assertEquals("Undone: mark 1\nNow you have 1 task(s) in the list", ui.readCommand("undo"));
+        assertEquals("1. [T] [ ] borrow book\n", ui.readCommand("list"));
+        assertEquals("Undone: todo borrow book\nNow you have 0 task(s) in the list", ui.readCommand("undo"));
+    }
+
+    @Test
+    public void readCommand_workspaces_switchedWithSeparateFilesAndIdleOnesEvicted() throws Exception {
+        Workspaces workspaces = new Workspaces(dir.resolve("simba.txt"), Storage::new, 2);
+        Ui ui = new Ui(workspaces);
+        ui.readCommand("todo borrow book");
+
+        assertEquals("Workspace of this name does not exist", ui.readCommand("switch work"));
+        assertEquals("Oh dear :( I don't understand you", ui.readCommand("workspace my work"));
+        assertEquals("Created workspace work\nNow you are in workspace work", ui.readCommand("workspace work"));
+        assertTrue(Files.exists(dir.resolve("simba-work.txt.bin")));
+        assertEquals("Task list is empty", ui.readCommand("list"));
+        ui.readCommand("todo write report");
+        assertEquals("Created workspace home\nNow you are in workspace home", ui.readCommand("workspace home"));
+        assertEquals("Here are your workspaces:\n* home (0 task(s))\n  main\n  work (1 task(s))",
+                ui.readCommand("workspace"));
+
+        assertEquals("Now you are in workspace main with 1 task(s)", ui.readCommand("switch main"));
+        assertEquals("1. [T] [ ] borrow book\n", ui.readCommand("list"));
+        assertEquals("Now you are in workspace work with 1 task(s)", ui.readCommand("switch work"));
+        assertEquals("1. [T] [ ] write report\n", ui.readCommand("list"));
+        workspaces.close();
+
+        assertEquals("1. [T] [ ] write report\n",
+                new TaskList(new Storage(dir.resolve("simba-work.txt").toString())).listAsString());
+    }
+}